@@ -23,6 +23,32 @@ public interface ChessController {
    */
   boolean move(int fromX, int fromY, int toX, int toY);
 
+  /**
+   * Appelé lorsque l'utilisateur a demandé un déplacement avec promotion, la pièce choisie étant connue avant que le
+   * déplacement soit soumis.
+   * @param fromX
+   * @param fromY
+   * @param toX
+   * @param toY
+   * @param promotion type de la pièce en laquelle le pion est promu, null pour le choix par défaut
+   * @return true si le mouvement a pu avoir lieu, false dans le cas contraire.
+   */
+  default boolean move(int fromX, int fromY, int toX, int toY, PieceType promotion) {
+    return move(fromX, fromY, toX, toY);
+  }
+
+  /**
+   * Indique si le déplacement demandé est une promotion, afin que la vue demande la pièce choisie avant de le soumettre.
+   * @param fromX
+   * @param fromY
+   * @param toX
+   * @param toY
+   * @return true si le mouvement est possible et promeut un pion, false dans le cas contraire.
+   */
+  default boolean isPromotion(int fromX, int fromY, int toX, int toY) {
+    return false;
+  }
+
   /**
    * Démarre une nouvelle partie. L'échiquier doit être remis dans sa position initiale.
    */
@@ -8,6 +8,26 @@ import chess.PlayerColor;
 import java.util.HashMap;
 
 public abstract class BaseView<Resource> implements ChessView {
+  private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.KNIGHT, PieceType.ROOK, PieceType.BISHOP};
+
+  private static class PromotionChoice implements UserChoice {
+    private final PieceType type;
+
+    private PromotionChoice(PieceType type) {
+      this.type = type;
+    }
+
+    @Override
+    public String textValue() {
+      return type.name().charAt(0) + type.name().substring(1).toLowerCase();
+    }
+
+    @Override
+    public String toString() {
+      return textValue();
+    }
+  }
+
   private final HashMap<PieceType, HashMap<PlayerColor, DrawableResource<Resource>>> resources = new HashMap<PieceType, HashMap<PlayerColor, DrawableResource<Resource>>>();
 
   protected final ChessController controller;
@@ -25,6 +45,23 @@ public abstract class BaseView<Resource> implements ChessView {
     resources.put(type, pieceResources);
   }
 
+  /**
+   * Soumet un déplacement au contrôleur, en demandant d'abord à l'utilisateur la pièce choisie si le déplacement est
+   * une promotion.
+   * @return true si le mouvement a pu avoir lieu, false dans le cas contraire ou si l'utilisateur a annulé son choix.
+   */
+  protected final boolean submitMove(int fromX, int fromY, int toX, int toY) {
+    if (!controller.isPromotion(fromX, fromY, toX, toY)) {
+      return controller.move(fromX, fromY, toX, toY);
+    }
+    PromotionChoice[] choices = new PromotionChoice[PROMOTIONS.length];
+    for (int i = 0; i < choices.length; ++i) {
+      choices[i] = new PromotionChoice(PROMOTIONS[i]);
+    }
+    PromotionChoice choice = askUser("You can promote your piece !", "In what will your piece promote to ?", choices);
+    return choice != null && controller.move(fromX, fromY, toX, toY, choice.type);
+  }
+
   protected final Resource loadResourceFor(PieceType type, PlayerColor color, Resource def) {
     Resource icon = def;
     if (type != null && color != null) {
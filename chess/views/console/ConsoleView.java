@@ -156,7 +156,7 @@ public class ConsoleView extends BaseView<String> {
     while (!ok) {
       String in = askPattern(movementPattern, "Next move?");
       System.out.println(in);
-      ok = controller.move(charCoordinateToIndex(in.charAt(0)), intCoordinateToIndex(in.charAt(1)),
+      ok = submitMove(charCoordinateToIndex(in.charAt(0)), intCoordinateToIndex(in.charAt(1)),
           charCoordinateToIndex(in.charAt(2)), intCoordinateToIndex(in.charAt(3)));
 
       if (!ok) {
@@ -149,7 +149,7 @@ public class GUIView extends BaseView<ImageIcon> {
 
   private void move(ChessSquare from, ChessSquare to) {
     messageLabel.setText("");
-    controller.move(from.x, from.y, to.x, to.y);
+    submitMove(from.x, from.y, to.x, to.y);
   }
 
 
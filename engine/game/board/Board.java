@@ -1,10 +1,13 @@
 package engine.game.board;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 /**
  * Board modelise a board of Squares in which different action can be made
+ * The pieces of the squares are kept in an array indexed by square, empty squares holding null
  * @author Alen Bijelic
  * @author Nelson Jeanrenaud
  * @param <T> Type of Board
@@ -12,7 +15,13 @@ import java.util.Objects;
 public abstract class Board<T extends Board<T>> {
     private final int LENGTH;
     private final int HEIGHT;
-    private final ArrayList<Square<T>> boardArray;
+    private final Geometry geometry;
+
+    // Piece on each square, null for an empty square, indexed by i + j * length
+    private final Piece<T>[] squares;
+
+    // Move rules known by the board, indexed by the id used in the packed moves
+    private RuleTable<T> rules;
 
     protected final Historic<T> historicMoves;
 
@@ -22,18 +31,25 @@ public abstract class Board<T extends Board<T>> {
      * @param height Boards height
      */
     protected Board(int length, int height){
+        this(length, height, RuleTable.of(List.of()));
+    }
+
+    /**
+     * Board Constructor
+     * @param length Boards length
+     * @param height Boards height
+     * @param rules Table of the move rules, shared with the other boards using the same rules
+     */
+    @SuppressWarnings("unchecked")
+    protected Board(int length, int height, RuleTable<T> rules){
         if(length <= 0|| height <= 0)
             throw new IllegalArgumentException("Size must be above 0");
         LENGTH = length;
         HEIGHT = height;
-        boardArray = new ArrayList<>();
-        historicMoves = new Historic<>();
-        // populate board
-        for (int j = 0; j < HEIGHT; j++) {
-            for (int i = 0; i < LENGTH; i++) {
-                boardArray.add(new Square<>(i, j));
-            }
-        }
+        geometry = Geometry.of(LENGTH, HEIGHT);
+        squares = (Piece<T>[]) new Piece<?>[LENGTH * HEIGHT];
+        historicMoves = new Historic<>(this);
+        this.rules = Objects.requireNonNull(rules, "rules must be non null");
     }
 
     /**
@@ -58,18 +74,87 @@ public abstract class Board<T extends Board<T>> {
      */
     public boolean move(Vector from, Vector to) {
         Objects.requireNonNull(from, "from vector must be non null");
-        Objects.requireNonNull(from, "to vector must be non null");
-
-        Square<T> fromSquare = getSquareAtPosition(from);
+        Objects.requireNonNull(to, "to vector must be non null");
+        return move(indexOf(from), indexOf(to));
+    }
 
+    /**
+     * Move request by square indexes
+     * @param from Index of the square from which the request move is made
+     * @param to Index of the square to which the request move is made
+     * @return Either the move can be made or not
+     */
+    public boolean move(int from, int to) {
         // Si y a bien une pièce
-        Piece<T> selectedPiece = fromSquare.getPiece();
+        Piece<T> selectedPiece = getPieceAtPosition(from);
         if(selectedPiece != null){
             return selectedPiece.move(from, to, true);
         }
         return false;
     }
 
+    /**
+     * Play a move encoded by PackedMove, with the exact rule it was generated with
+     * @param move Encoded move
+     * @return Either the move can be made or not, a rule that is not one of the piece refusing it
+     */
+    public boolean playMove(int move) {
+        Piece<T> selectedPiece = getPieceAtPosition(PackedMove.getFrom(move));
+        if(selectedPiece == null || !selectedPiece.hasRule(PackedMove.getRule(move)))
+            return false;
+        Move<T> rule = getRule(PackedMove.getRule(move));
+        if(selectedPiece.canMove(PackedMove.getFrom(move), PackedMove.getTo(move), rule)){
+            selectedPiece.doMove(PackedMove.getFrom(move), PackedMove.getTo(move), rule);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Register a move rule so that it gets an id in the packed moves
+     * Ids are given in registration order, registering the rules in a fixed order gives the same ids on every board
+     * @param rule Move rule
+     * @return Id of the rule on the board
+     */
+    protected int registerRule(Move<T> rule) {
+        Objects.requireNonNull(rule, "rule must be non null");
+        int id = rules.indexOf(rule);
+        if(id < 0) {
+            rules = rules.with(rule);
+            id = rules.size() - 1;
+        }
+        return id;
+    }
+
+    /**
+     * Get the id of a move rule
+     * @param rule Move rule
+     * @return Id of the rule on the board
+     */
+    public int getRuleId(Move<T> rule) {
+        int id = rules.indexOf(Objects.requireNonNull(rule, "rule must be non null"));
+        if(id < 0)
+            throw new IllegalArgumentException("Unknown move rule");
+        return id;
+    }
+
+    /**
+     * Get a move rule by its id
+     * @param id Id of the rule on the board
+     * @return Move rule
+     */
+    public Move<T> getRule(int id) {
+        return rules.get(id);
+    }
+
+    /**
+     * Get the number of registered move rules
+     * @return Number of rules, ids being between 0 and this number
+     */
+    public int countRules() {
+        return rules.size();
+    }
+
     /**
      * Get the length of the board
      * @return The length of the board
@@ -86,6 +171,45 @@ public abstract class Board<T extends Board<T>> {
         return HEIGHT;
     }
 
+    /**
+     * Get the lookup tables of the board size
+     * @return The geometry of the board
+     */
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Get the shared position of a square
+     * @param i Index i of the square
+     * @param j Index j of the square
+     * @return Position of the square
+     */
+    public Position getPosition(int i, int j) {
+        return geometry.getPosition(i, j);
+    }
+
+    /**
+     * Get the shared position of a square
+     * @param index Index of the square, i + j * length
+     * @return Position of the square
+     */
+    public Position getPosition(int index) {
+        return geometry.getPosition(index);
+    }
+
+    /**
+     * Get the index of a square, i + j * length
+     * @param position Position of the square
+     * @return Index of the square
+     */
+    public int indexOf(Vector position) {
+        Objects.requireNonNull(position, "position must be non null");
+        if(position.getI() < 0 || position.getJ() < 0 || position.getI() >= LENGTH || position.getJ() >= HEIGHT)
+            throw new IllegalArgumentException("Position is out of bounds");
+        return position.getI() + position.getJ() * LENGTH;
+    }
+
     /**
      * Set piece at a given position
      * @param piece Piece to set at given position
@@ -94,15 +218,7 @@ public abstract class Board<T extends Board<T>> {
      */
     public Piece<T> setPieceAtPosition(Piece<T> piece, Vector position){
         Objects.requireNonNull(piece, "piece must be non null");
-        Objects.requireNonNull(position, "position must be non null");
-        if (position.getI() < 0 || position.getJ() < 0 || position.getI() >= HEIGHT || position.getJ() >= LENGTH) {
-            throw new IllegalArgumentException("Position is out of bounds");
-        }
-        else {
-            Square<T> c = getSquareAtPosition(position);
-            c.setPiece(piece);
-            return piece;
-        }
+        return setPieceAtPosition(piece, indexOf(position));
     }
 
     /**
@@ -113,7 +229,20 @@ public abstract class Board<T extends Board<T>> {
      * @return The piece on the given position
      */
     public Piece<T> setPieceAtPosition(Piece<T> piece, int i, int j) {
-        return setPieceAtPosition(piece, new Vector(i, j));
+        return setPieceAtPosition(piece, getPosition(i, j));
+    }
+
+    /**
+     * Set piece at a given square
+     * @param piece Piece to set at given square
+     * @param square Index of the square to set the piece on
+     * @return The piece on the given square
+     */
+    public Piece<T> setPieceAtPosition(Piece<T> piece, int square){
+        Objects.requireNonNull(piece, "piece must be non null");
+        checkSquare(square);
+        squares[square] = piece;
+        return piece;
     }
 
     /**
@@ -122,7 +251,27 @@ public abstract class Board<T extends Board<T>> {
      * @return The piece at the given position
      */
     public Piece<T> getPieceAtPosition(Vector position){
-        return getSquareAtPosition(Objects.requireNonNull(position, "position must be non null")).getPiece();
+        return getPieceAtPosition(indexOf(position));
+    }
+
+    /**
+     * Get the piece at given indexes
+     * @param i Index i of the position
+     * @param j Index j of the position
+     * @return The piece at the given indexes
+     */
+    public Piece<T> getPieceAtPosition(int i, int j){
+        return getPieceAtPosition(getPosition(i, j).getIndex());
+    }
+
+    /**
+     * Get the piece at a given square
+     * @param square Index of the square
+     * @return The piece at the given square
+     */
+    public Piece<T> getPieceAtPosition(int square){
+        checkSquare(square);
+        return squares[square];
     }
 
     /**
@@ -131,7 +280,19 @@ public abstract class Board<T extends Board<T>> {
      * @return The removed piece
      */
     public Piece<T> removePieceAtPosition(Vector position){
-        return getSquareAtPosition(Objects.requireNonNull(position, "position must be non null")).removePiece();
+        return removePieceAtPosition(indexOf(position));
+    }
+
+    /**
+     * Remove piece at a given square
+     * @param square Index of the square to remove the piece
+     * @return The removed piece
+     */
+    public Piece<T> removePieceAtPosition(int square){
+        checkSquare(square);
+        Piece<T> removedPiece = squares[square];
+        squares[square] = null;
+        return removedPiece;
     }
 
     /**
@@ -141,29 +302,33 @@ public abstract class Board<T extends Board<T>> {
      * @return The piece at the new position
      */
     public Piece<T> movePieceAtPosition(Vector from, Vector to){
-        return setPieceAtPosition(removePieceAtPosition(Objects.requireNonNull(from, "from vector must be non null")), Objects.requireNonNull(to, "to vector must be non null"));
+        return movePieceAtPosition(indexOf(Objects.requireNonNull(from, "from vector must be non null")), indexOf(Objects.requireNonNull(to, "to vector must be non null")));
     }
 
     /**
-     * Get square at a given position
-     * @param position Position to get the square
-     * @return The square at the given position
+     * Move the piece of a square to another square
+     * @param from Index of the square from where to move the piece
+     * @param to Index of the square to where to move the piece
+     * @return The piece at the new square
      */
-    private Square<T> getSquareAtPosition(Vector position){
-        Objects.requireNonNull(position);
-        if(position.getI() >= 0 && position.getJ() >= 0 && position.getI() < HEIGHT && position.getJ() < LENGTH) {
-            return boardArray.get(position.getI() + position.getJ() * LENGTH);
-        }
-        throw new IllegalArgumentException("Position is out of bounds");
+    public Piece<T> movePieceAtPosition(int from, int to){
+        return setPieceAtPosition(removePieceAtPosition(from), to);
+    }
+
+    /**
+     * Check that a square is on the board
+     * @param square Index of the square
+     */
+    private void checkSquare(int square){
+        if(square < 0 || square >= squares.length)
+            throw new IllegalArgumentException("Position is out of bounds");
     }
 
     /**
      * Remove all pieces from the board
      */
     public void emptyBoard(){
-        for (Square<T> c : boardArray) {
-            c.removePiece();
-        }
+        Arrays.fill(squares, null);
     }
 
     /**
@@ -176,81 +341,63 @@ public abstract class Board<T extends Board<T>> {
         if(pieceToSearch == null){
             return foundPieces;
         }
-        for (Square<T> c : boardArray) {
-            Piece<T> pieceOnPosition = c.getPiece();
-            if(pieceToSearch.equals(pieceOnPosition)){
-                foundPieces.add(c.getPosition());
+        for (int square = 0; square < squares.length; square++) {
+            if(pieceToSearch.equals(squares[square])){
+                foundPieces.add(getPosition(square));
             }
         }
         return foundPieces;
     }
 
     /**
-     * Intern square class
-     * @param <T> Type of Square
+     * Get the state of the position that moves can not restore by themselves, saved in the historic before each move
+     * Exemple : the castling rights of a chess
+     * @return Packed irreversible state, 0 for a board without such state
      */
-    private static class Square<T extends Board<T>> {
-        private Piece<T> piece;
-        private final int X;
-        private final int Y;
-
-        /**
-         * Square constructor
-         * @param x Position x of the square
-         * @param y Position y of the square
-         */
-        private Square(int x, int y) {
-            if(x < 0 || y < 0)
-                throw new IllegalArgumentException("Square position can't be under 0");
-            X = x;
-            Y = y;
-        }
-
-        /**
-         * Get the piece on the square
-         * @return
-         */
-        private Piece<T> getPiece() {
-            return piece;
-        }
-
-        /**
-         * Set a piece on the square
-         * @param piece
-         */
-        private void setPiece(Piece<T> piece) {
-            Objects.requireNonNull(piece);
-            this.piece = piece;
-        }
+    protected long getIrreversibleState(){
+        return 0;
+    }
 
-        /**
-         * Get the position of a square
-         * @return
-         */
-        private Vector getPosition(){
-            return new Vector(X, Y);
-        }
+    /**
+     * Restore the irreversible state saved before a reverted move
+     * @param state Packed irreversible state
+     */
+    protected void restoreIrreversibleState(long state){
+    }
 
-        /**
-         * Remove piece from the board
-         * @return The removed piece
-         */
-        private Piece<T> removePiece(){
-            Piece<T> returnPiece = piece;
-            piece = null;
-            return returnPiece;
-        }
+    /**
+     * Update the irreversible state after a move has been made, the move being the last one of the historic
+     * @param piece Moved piece
+     * @param move Move made by the piece
+     * @param start Index of the square from where the piece moved
+     * @param destination Index of the square to where the piece moved
+     */
+    protected void updateIrreversibleState(Piece<T> piece, Move<T> move, int start, int destination){
     }
 
     /**
      * Check if the piece has moved on the board
+     * A piece shared by many squares, as the pieces of a chess, has moved as soon as one of its squares moved
      * @param piece Piece to be checked
      * @return Either the piece has moved or not
+     * @deprecated Use hasMoved(int), which tells it for the piece of one square
      */
+    @Deprecated
     public boolean hasMoved(Piece<T> piece){
         return historicMoves.isPieceContained(piece);
     }
 
+    /**
+     * Check if the piece on a square has moved since the start of the game
+     * It has not if no recorded move started from or ended on its square, a piece only moved by the action of
+     * another move, as a Rook on a roque, not being seen
+     * @param square Index of the square of the piece
+     * @return Either the piece has moved or not
+     */
+    public boolean hasMoved(int square){
+        return historicMoves.isSquareContained(square);
+    }
+
     /**
      * Check if the move a move is the last one executed
      * @param move move we are looking for
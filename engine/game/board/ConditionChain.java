@@ -0,0 +1,19 @@
+package engine.game.board;
+
+/**
+ * Conditions of a move compiled into one check, stopping at the first rejecting condition
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ * @param <T> Type of Board
+ */
+@FunctionalInterface
+interface ConditionChain<T extends Board<T>> {
+    /**
+     * Check the conditions in their order
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param board Concerned Board on which the action will be performed
+     * @return Either every condition is respected or not
+     */
+    boolean check(int start, int destination, Board<T> board);
+}
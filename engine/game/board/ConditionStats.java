@@ -0,0 +1,132 @@
+package engine.game.board;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of a condition of a move : how often it is checked, how often it rejects the move and how long it takes
+ * Counters can be updated by many threads, the time being only measured on one check out of SAMPLE_PERIOD
+ * Conditions are only checked through their statistics while Move.setConditionStatsEnabled is on
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ * @param <T> Type of Board
+ */
+public final class ConditionStats<T extends Board<T>> {
+    private static final int SAMPLE_PERIOD = 64;
+
+    private final GameCondition<T> condition;
+    private final LongAdder invocations;
+    private final LongAdder rejections;
+    private final LongAdder sampledNanos;
+    private final LongAdder samples;
+
+    // Number of checks, only used to pick the measured ones
+    private final AtomicInteger sampleCounter;
+
+    /**
+     * ConditionStats constructor
+     * @param condition Observed condition
+     */
+    ConditionStats(GameCondition<T> condition) {
+        this.condition = Objects.requireNonNull(condition, "condition must be non null");
+        invocations = new LongAdder();
+        rejections = new LongAdder();
+        sampledNanos = new LongAdder();
+        samples = new LongAdder();
+        sampleCounter = new AtomicInteger();
+    }
+
+    /**
+     * Check the condition and record it
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param board Concerned board
+     * @return Either the condition holds or not
+     */
+    boolean check(int start, int destination, Board<T> board) {
+        invocations.increment();
+        boolean holds;
+        // The period is a power of two, so the counter can wrap around
+        if((sampleCounter.incrementAndGet() & (SAMPLE_PERIOD - 1)) == 0) {
+            long begin = System.nanoTime();
+            holds = condition.checkCondition(start, destination, board);
+            sampledNanos.add(System.nanoTime() - begin);
+            samples.increment();
+        } else {
+            holds = condition.checkCondition(start, destination, board);
+        }
+        if(!holds)
+            rejections.increment();
+        return holds;
+    }
+
+    /**
+     * Get the observed condition
+     * @return Condition
+     */
+    public GameCondition<T> getCondition() {
+        return condition;
+    }
+
+    /**
+     * Get the number of checks of the condition
+     * @return Number of checks
+     */
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    /**
+     * Get the number of checks that rejected the move
+     * @return Number of rejections
+     */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * Get the share of the checks that rejected the move
+     * @return Rejection rate between 0 and 1, 0 if the condition has not been checked
+     */
+    public double getRejectionRate() {
+        long invocations = getInvocations();
+        return invocations == 0 ? 0 : (double) getRejections() / invocations;
+    }
+
+    /**
+     * Get the average time of a check, measured on a sample of the checks
+     * @return Average time in nanoseconds, 0 if no check has been measured
+     */
+    public double getAverageNanos() {
+        long samples = this.samples.sum();
+        return samples == 0 ? 0 : (double) sampledNanos.sum() / samples;
+    }
+
+    /**
+     * Get the estimated total time spent checking the condition
+     * @return Estimated time in nanoseconds
+     */
+    public double getEstimatedTotalNanos() {
+        return getAverageNanos() * getInvocations();
+    }
+
+    /**
+     * Get the average time spent per rejected move, checking first the conditions of lowest cost rejects moves soonest
+     * @return Time in nanoseconds per rejection, infinite if the condition never rejected a move
+     */
+    public double getCostPerRejection() {
+        double rejectionRate = getRejectionRate();
+        return rejectionRate == 0 ? Double.POSITIVE_INFINITY : getAverageNanos() / rejectionRate;
+    }
+
+    /**
+     * Get the statistics to a string formatted value
+     * @return String formatted value of the statistics
+     */
+    @Override
+    public String toString() {
+        return String.format("%s : %d checks, %.1f%% rejected, %.0f ns", condition.getClass().getSimpleName(),
+                getInvocations(), getRejectionRate() * 100, getAverageNanos());
+    }
+}
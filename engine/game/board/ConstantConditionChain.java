@@ -0,0 +1,48 @@
+package engine.game.board;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Template of the condition chains compiled by Move, never used as is
+ * Move defines a hidden copy of this class for each chain, given as class data : held in a static final field, the
+ * chain is a constant the JIT inlines with the conditions it calls
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+@SuppressWarnings("rawtypes")
+final class ConstantConditionChain implements ConditionChain {
+    private static final MethodHandle CHAIN = chain();
+
+    /**
+     * Get the chain given to the hidden class
+     * @return Chain of conditions, taking the start, the destination and the board
+     */
+    private static MethodHandle chain() {
+        try {
+            return MethodHandles.classData(MethodHandles.lookup(), ConstantDescs.DEFAULT_NAME, MethodHandle.class);
+        } catch (IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Check the conditions in their order
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param board Concerned Board on which the action will be performed
+     * @return Either every condition is respected or not
+     */
+    @Override
+    public boolean check(int start, int destination, Board board) {
+        try {
+            return (boolean) CHAIN.invokeExact(start, destination, board);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package engine.game.board;
 
+import java.util.Objects;
+
 /**
  * Interface for game actions
  * @author Alen Bijelic
@@ -16,6 +18,19 @@ public interface GameAction<T extends Board<T>> {
      */
     Piece<T> doAction(Vector start, Vector destination, Board<T> t);
 
+    /**
+     * Perform an action by square indexes
+     * Defaults to the Vector version with the shared positions of the squares
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param t Concerned Board on which the action will be performed
+     * @return The piece on the destination
+     */
+    default Piece<T> doAction(int start, int destination, Board<T> t) {
+        Objects.requireNonNull(t, "board must be non null");
+        return doAction(t.getPosition(start), t.getPosition(destination), t);
+    }
+
     /**
      * Revert an action
      * @param start Vector from where the action started
@@ -24,4 +39,17 @@ public interface GameAction<T extends Board<T>> {
      * @param t Concerned Board on which the action was perform
      */
     void revertAction(Vector start, Vector destination, Piece<T> affectedPiece, Board<T> t);
+
+    /**
+     * Revert an action by square indexes
+     * Defaults to the Vector version with the shared positions of the squares
+     * @param start Index of the square from where the action started
+     * @param destination Index of the square to where the action ended
+     * @param affectedPiece Affected pieces by the action
+     * @param t Concerned Board on which the action was perform
+     */
+    default void revertAction(int start, int destination, Piece<T> affectedPiece, Board<T> t) {
+        Objects.requireNonNull(t, "board must be non null");
+        revertAction(t.getPosition(start), t.getPosition(destination), affectedPiece, t);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package engine.game.board;
 
+import java.util.Objects;
+
 /**
  * Interface for game conditions
  * @author Alen Bijelic
@@ -15,4 +17,38 @@ public interface GameCondition<T extends Board<T>> {
      * @return Either the condition is accepted or not
      */
     boolean checkCondition(Vector start, Vector destination, Board<T> board);
-}
\ No newline at end of file
+
+    /**
+     * Check a condition by square indexes
+     * Defaults to the Vector version with the shared positions of the squares
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param board Concerned Board on which the action will be performed
+     * @return Either the condition is accepted or not
+     */
+    default boolean checkCondition(int start, int destination, Board<T> board) {
+        Objects.requireNonNull(board, "board must be non null");
+        return checkCondition(board.getPosition(start), board.getPosition(destination), board);
+    }
+
+    /**
+     * Tell if the condition rejects every destination lying behind another piece
+     * Moves generators can then stop walking a direction at its first occupied square
+     * @return Either the pieces can not pass over other pieces or not
+     */
+    default boolean isBlockedByPieces() {
+        return false;
+    }
+
+    /**
+     * Tell if the condition can be checked in any order with the other independent conditions of a move
+     * Move reorders consecutive independent conditions by cost when the condition statistics are enabled, so such a
+     * condition must only read the board, have no side effect and not rely on the conditions checked before it, for
+     * example to find a piece on the start square
+     * Each condition has to declare it, the default keeping the condition in place
+     * @return Either the condition can be reordered or not
+     */
+    default boolean isIndependent() {
+        return false;
+    }
+}
@@ -0,0 +1,159 @@
+package engine.game.board;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookup tables of a board size
+ * For every displacement that fits on the board, gives the unit step it follows and how many steps it makes
+ * Also holds the shared immutable position of every square
+ * Tables are built once per board size and shared by all boards of that size
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+public final class Geometry {
+    private static final Map<Long, Geometry> GEOMETRIES = new ConcurrentHashMap<>();
+
+    private final int length;
+    private final int height;
+    private final int width;
+
+    private final int[] stepI;
+    private final int[] stepJ;
+    private final int[] distance;
+
+    private final Position[] positions;
+
+    /**
+     * Get the geometry of a board size
+     * @param length Length of the board
+     * @param height Height of the board
+     * @return Shared geometry
+     */
+    public static Geometry of(int length, int height) {
+        if(length <= 0 || height <= 0)
+            throw new IllegalArgumentException("Size must be above 0");
+        return GEOMETRIES.computeIfAbsent(((long) length << Integer.SIZE) | height, key -> new Geometry(length, height));
+    }
+
+    /**
+     * Geometry constructor
+     * @param length Length of the board
+     * @param height Height of the board
+     */
+    private Geometry(int length, int height) {
+        this.length = length;
+        this.height = height;
+        width = 2 * length - 1;
+        int size = width * (2 * height - 1);
+        stepI = new int[size];
+        stepJ = new int[size];
+        distance = new int[size];
+        for (int di = -(length - 1); di < length; di++) {
+            for (int dj = -(height - 1); dj < height; dj++) {
+                int index = index(di, dj);
+                int gcd = gcd(di, dj);
+                distance[index] = gcd;
+                stepI[index] = gcd == 0 ? 0 : di / gcd;
+                stepJ[index] = gcd == 0 ? 0 : dj / gcd;
+            }
+        }
+        positions = new Position[length * height];
+        for (int square = 0; square < positions.length; square++) {
+            positions[square] = new Position(square % length, square / length, square);
+        }
+    }
+
+    /**
+     * Get the shared position of a square
+     * @param i Index i of the square
+     * @param j Index j of the square
+     * @return Position of the square
+     */
+    public Position getPosition(int i, int j) {
+        if(i < 0 || j < 0 || i >= length || j >= height)
+            throw new IllegalArgumentException("Position is out of bounds");
+        return positions[i + j * length];
+    }
+
+    /**
+     * Get the shared position of a square
+     * @param index Index of the square, i + j * length
+     * @return Position of the square
+     */
+    public Position getPosition(int index) {
+        if(index < 0 || index >= positions.length)
+            throw new IllegalArgumentException("Position is out of bounds");
+        return positions[index];
+    }
+
+    /**
+     * Check if a displacement fits on the board
+     * @param di Displacement along i
+     * @param dj Displacement along j
+     * @return Either the displacement fits or not
+     */
+    public boolean contains(int di, int dj) {
+        return Math.abs(di) < length && Math.abs(dj) < height;
+    }
+
+    /**
+     * Get the i index of the unit step followed by a displacement
+     * @param di Displacement along i
+     * @param dj Displacement along j
+     * @return i index of the unit step
+     */
+    public int getStepI(int di, int dj) {
+        return stepI[index(di, dj)];
+    }
+
+    /**
+     * Get the j index of the unit step followed by a displacement
+     * @param di Displacement along i
+     * @param dj Displacement along j
+     * @return j index of the unit step
+     */
+    public int getStepJ(int di, int dj) {
+        return stepJ[index(di, dj)];
+    }
+
+    /**
+     * Get the number of unit steps made by a displacement
+     * The squares in between are the start plus 1 to distance - 1 unit steps
+     * @param di Displacement along i
+     * @param dj Displacement along j
+     * @return Number of unit steps
+     */
+    public int getDistance(int di, int dj) {
+        return distance[index(di, dj)];
+    }
+
+    /**
+     * Get the table index of a displacement
+     * @param di Displacement along i
+     * @param dj Displacement along j
+     * @return Table index
+     */
+    private int index(int di, int dj) {
+        if(!contains(di, dj))
+            throw new IllegalArgumentException("Displacement does not fit on the board");
+        return (di + length - 1) + (dj + height - 1) * width;
+    }
+
+    /**
+     * Get the greatest common divisor between two values
+     * @param a Value A
+     * @param b Value B
+     * @return The greatest common divisor
+     */
+    private static int gcd(int a, int b) {
+        a = Math.abs(a);
+        b = Math.abs(b);
+        while (b != 0) {
+            int r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+}
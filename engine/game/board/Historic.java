@@ -1,35 +1,101 @@
 package engine.game.board;
 
-import java.util.List;
+import java.util.Arrays;
 import java.util.Objects;
-import java.util.Stack;
 
 /**
  * Historic of all moves
+ * Moves are recorded in preallocated parallel arrays, the pieces affected by their actions in one flat array,
+ * so that making and reverting a move allocates nothing once the arrays are large enough
  * @author Alen Bijelic
  * @author Nelson Jeanrenaud
  * @param <T> Type of Board
  */
 public class Historic<T extends Board<T>> {
-    private final Stack<Action<T>> historicMoves;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Board<T> board;
+
+    // One entry per move
+    private Piece<T>[] pieces;
+    private int[] rules;
+    private int[] departs;
+    private int[] arrivees;
+    private long[] states;
+    private int[] affectedStarts;
+    private int size;
+
+    // Pieces affected by the actions of the moves i.e. pieces eaten by the piece, one per action
+    private Piece<T>[] affectedPieces;
+    private int affectedSize;
 
     /**
      * Historic constructor
+     * @param board Board of the recorded moves
      */
-    Historic(){
-        this.historicMoves = new Stack<>();
+    @SuppressWarnings("unchecked")
+    Historic(Board<T> board){
+        this.board = Objects.requireNonNull(board, "board must be non null");
+        pieces = (Piece<T>[]) new Piece<?>[INITIAL_CAPACITY];
+        rules = new int[INITIAL_CAPACITY];
+        departs = new int[INITIAL_CAPACITY];
+        arrivees = new int[INITIAL_CAPACITY];
+        states = new long[INITIAL_CAPACITY];
+        affectedStarts = new int[INITIAL_CAPACITY];
+        affectedPieces = (Piece<T>[]) new Piece<?>[INITIAL_CAPACITY];
     }
 
     /**
-     * Add an action to the stack of historic moves
+     * Start recording a move, its affected pieces are added while its actions are performed
      * @param piece Concerned piece
      * @param move Move made by the piece
-     * @param depart Begin vector
-     * @param arrivee Destination vector
-     * @param affectedPieces List of affected pieces
+     * @param depart Index of the begin square
+     * @param arrivee Index of the destination square
+     * @param state Irreversible state of the board before the move
+     */
+    void add(Piece<T> piece, Move<T> move, int depart, int arrivee, long state){
+        Objects.requireNonNull(piece, "piece must be non null");
+        Objects.requireNonNull(move, "move must be non null");
+        if(size == pieces.length) {
+            int capacity = size * 2;
+            pieces = Arrays.copyOf(pieces, capacity);
+            rules = Arrays.copyOf(rules, capacity);
+            departs = Arrays.copyOf(departs, capacity);
+            arrivees = Arrays.copyOf(arrivees, capacity);
+            states = Arrays.copyOf(states, capacity);
+            affectedStarts = Arrays.copyOf(affectedStarts, capacity);
+        }
+        pieces[size] = piece;
+        rules[size] = board.getRuleId(move);
+        departs[size] = depart;
+        arrivees[size] = arrivee;
+        states[size] = state;
+        affectedStarts[size] = affectedSize;
+        size++;
+    }
+
+    /**
+     * Record the piece affected by the next action of the move being recorded
+     * @param affectedPiece Affected piece, null if the action affected none
      */
-    void add(Piece<T> piece, Move<T> move, Vector depart, Vector arrivee, List<Piece<T>> affectedPieces){
-        historicMoves.push(new Action<>(piece, move, depart, arrivee, affectedPieces));
+    void addAffectedPiece(Piece<T> affectedPiece){
+        if(affectedSize == affectedPieces.length)
+            affectedPieces = Arrays.copyOf(affectedPieces, affectedSize * 2);
+        affectedPieces[affectedSize++] = affectedPiece;
+    }
+
+    /**
+     * Count the pieces affected by the last move
+     * @return Number of affected pieces
+     */
+    public int countLastAffectedPieces(){
+        checkNotEmpty();
+        int count = 0;
+        for (int k = affectedStarts[size - 1]; k < affectedSize; k++) {
+            if(affectedPieces[k] != null)
+                count++;
+        }
+        return count;
     }
 
     /**
@@ -40,8 +106,21 @@ public class Historic<T extends Board<T>> {
     public boolean isPieceContained(Piece<T> piece){
         if(piece == null)
             return false;
-        for(Action<T> action : historicMoves){
-            if(piece == action.piece)
+        for (int k = 0; k < size; k++) {
+            if(piece == pieces[k])
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if a recorded move started from or ended on a square
+     * @param square Index of the square
+     * @return Either a move started from or ended on the square or not
+     */
+    public boolean isSquareContained(int square){
+        for (int k = 0; k < size; k++) {
+            if(departs[k] == square || arrivees[k] == square)
                 return true;
         }
         return false;
@@ -51,9 +130,18 @@ public class Historic<T extends Board<T>> {
      * Cancel last move
      */
     public void revertLastMove(){
-        if(historicMoves.empty())
+        if(size == 0)
             throw new RuntimeException("No move have been done. Can't revert");
-        historicMoves.pop().revert();
+        int last = size - 1;
+        int affectedStart = affectedStarts[last];
+        board.getRule(rules[last]).revertMove(departs[last], arrivees[last], affectedPieces, affectedStart, board);
+        board.restoreIrreversibleState(states[last]);
+
+        // Release the references for the pieces to be collected
+        Arrays.fill(affectedPieces, affectedStart, affectedSize, null);
+        pieces[last] = null;
+        affectedSize = affectedStart;
+        size = last;
     }
 
     /**
@@ -62,79 +150,24 @@ public class Historic<T extends Board<T>> {
      * @return true if the move given is the last one executed
      */
     boolean isLastAction(Move<T> move){
-        return getLastAction().isMove(move);
+        checkNotEmpty();
+        return board.getRule(rules[size - 1]).equals(move);
     }
 
     /**
      * Returns the last piece moved in the historic
-     * @return
+     * @return Last moved piece
      */
     Piece<T> lastPieceMoved(){
-        return getLastAction().piece;
+        checkNotEmpty();
+        return pieces[size - 1];
     }
 
-
     /**
-     * Get the last action recorded
-     * @return Last added action in historic list
+     * Check that a move has been recorded
      */
-    private Action<T> getLastAction(){
-        if(historicMoves.empty())
+    private void checkNotEmpty(){
+        if(size == 0)
             throw new RuntimeException("No move have been done. Can't get last action");
-        return historicMoves.peek();
-    }
-
-    /**
-     * Action tracks the move of a Piece
-     * @author Alen Bijelic
-     * @author Nelson Jeanrenaud
-     * @param <T> Type of Board
-     */
-    private static class Action<T extends Board<T>> {
-        private final Piece<T> piece;
-        private final Move<T> move;
-        private final Vector depart;
-        private final Vector arrivee;
-
-        // List of affected pieces i.e. pieces eaten by the piece
-        private final List<Piece<T>> affectedPieces;
-
-        /**
-         * Action constructor
-         * @param piece Piece that made the action
-         * @param move The move made by the piece
-         * @param depart Vector from where the piece is moved
-         * @param arrivee Vector to where the piece is moved
-         * @param affectedPieces Affected pieces by the action
-         */
-        private Action(Piece<T> piece, Move<T> move, Vector depart, Vector arrivee, List<Piece<T>> affectedPieces){
-            Objects.requireNonNull(piece);
-            Objects.requireNonNull(move);
-            Objects.requireNonNull(depart);
-            Objects.requireNonNull(arrivee);
-            this.piece = piece;
-            this.move = move;
-            this.depart = depart;
-            this.arrivee = arrivee;
-            this.affectedPieces = affectedPieces;
-        }
-
-        /**
-         * is the move the one done at this action
-         * @param move move we are comparing it to
-         * @return true if it's the case
-         */
-        private boolean isMove(Move<T> move){
-            return move.equals(this.move);
-        }
-
-        /**
-         * Brings back to the original state
-         */
-        private void revert(){
-            move.revertMove(depart, arrivee, affectedPieces, piece.getBoard());
-        }
-
     }
-
 }
@@ -1,8 +1,16 @@
 package engine.game.board;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manage all moves that can be made in a board
@@ -11,11 +19,38 @@ import java.util.Objects;
  * @param <T> Type of Board
  */
 public class Move<T extends Board<T>> {
-    private final Vector vector;
-    private final boolean isMirroredX;
-    private final boolean isMirroredY;
+    // Class file of the template of the condition chains, null if it can not be read
+    private static final byte[] CHAIN_TEMPLATE = readChainTemplate();
+    private static final MethodHandle CHECK_CONDITION;
+    private static final MethodHandle ACCEPT;
+    private static final MethodHandle REJECT;
+    static {
+        try {
+            CHECK_CONDITION = MethodHandles.publicLookup().findVirtual(GameCondition.class, "checkCondition",
+                    MethodType.methodType(boolean.class, int.class, int.class, Board.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        ACCEPT = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, true), 0,
+                int.class, int.class, Board.class);
+        REJECT = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, false), 0,
+                int.class, int.class, Board.class);
+    }
+
     private final List<GameAction<T>>actions;
-    private final List<GameCondition<T>> conditions;
+
+    // Unit steps of the directions the move can follow, and how many steps it can make
+    private final List<Vector> directions;
+    private final int reach;
+    private final boolean isBlockable;
+
+    // Conditions in the order they are checked, replaced as a whole when they are reordered
+    private static final int REORDER_PERIOD = 1 << 14;
+    private volatile ConditionOrder<T> conditionOrder;
+    private final AtomicInteger checks;
+
+    // Conditions are only measured and reordered while enabled, moves being shared by every board
+    private static volatile boolean isConditionStatsEnabled;
 
     /**
      * Move constructor
@@ -26,11 +61,143 @@ public class Move<T extends Board<T>> {
      * @param actions List all actions that applied to the move
      */
     public Move(Vector vector, boolean isMirroredX, boolean isMirroredY, List<GameCondition<T>> conditions, List<GameAction<T>> actions) {
-        this.vector = Objects.requireNonNull(vector, "movement vector must be non null");
-        this.isMirroredX = isMirroredX;
-        this.isMirroredY = isMirroredY;
+        Objects.requireNonNull(vector, "movement vector must be non null");
         this.actions = actions;
-        this.conditions = conditions;
+
+        // Only the directions and the reach of the vector are kept
+        Vector step = vector.getSmallestCollinearVector();
+        List<Vector> steps = new ArrayList<>();
+        steps.add(step);
+        if(isMirroredX)
+            steps.add(step.getMirrorXVector());
+        if(isMirroredY)
+            steps.add(step.getMirrorYVector());
+        if(isMirroredX && isMirroredY)
+            steps.add(step.getOpposedVector());
+        directions = new ArrayList<>();
+        for (Vector direction : steps) {
+            if(!directions.contains(direction))
+                directions.add(direction);
+        }
+        reach = Math.abs(vector.getI() == 0 ? vector.getJ() : vector.getI() / step.getI());
+
+        boolean blockable = false;
+        if(conditions != null) {
+            for (GameCondition<T> condition : conditions) {
+                blockable |= condition.isBlockedByPieces();
+            }
+        }
+        isBlockable = blockable;
+        ConditionStats<T>[] order = newStatsArray(conditions == null ? 0 : conditions.size());
+        for (int k = 0; k < order.length; k++) {
+            order[k] = new ConditionStats<>(Objects.requireNonNull(conditions.get(k), "condition must be non null"));
+        }
+        conditionOrder = new ConditionOrder<>(order);
+        checks = new AtomicInteger();
+    }
+
+    /**
+     * Create an array of condition statistics
+     * @param size Size of the array
+     * @param <T> Type of Board
+     * @return Empty array
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Board<T>> ConditionStats<T>[] newStatsArray(int size) {
+        return (ConditionStats<T>[]) new ConditionStats<?>[size];
+    }
+
+    /**
+     * Read the class file of the template of the condition chains
+     * @return Bytes of the class file, null if it can not be read
+     */
+    private static byte[] readChainTemplate() {
+        try (InputStream in = Move.class.getResourceAsStream(ConstantConditionChain.class.getSimpleName() + ".class")) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Compile conditions into a chain checking them in their order and stopping at the first rejecting one
+     * The chain is given to a hidden copy of ConstantConditionChain, in which it is a constant : the JIT inlines
+     * the conditions where it would make a call through an interface for each of them in a loop
+     * Without the template, the chain is a loop over the conditions
+     * @param conditions Conditions in the order they are checked
+     * @param <T> Type of Board
+     * @return Chain of the conditions
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Board<T>> ConditionChain<T> compileConditions(GameCondition<T>[] conditions) {
+        if(CHAIN_TEMPLATE == null) {
+            return (start, destination, board) -> {
+                for (GameCondition<T> condition : conditions) {
+                    if(!condition.checkCondition(start, destination, board))
+                        return false;
+                }
+                return true;
+            };
+        }
+        MethodHandle chain = ACCEPT;
+        for (int k = conditions.length - 1; k >= 0; k--) {
+            chain = MethodHandles.guardWithTest(CHECK_CONDITION.bindTo(conditions[k]), chain, REJECT);
+        }
+        try {
+            Class<?> chainClass = MethodHandles.lookup()
+                    .defineHiddenClassWithClassData(CHAIN_TEMPLATE, chain, true).lookupClass();
+            return (ConditionChain<T>) chainClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Conditions can not be compiled", e);
+        }
+    }
+
+    /**
+     * Reorder the conditions by increasing cost per rejected move, so that the cheapest and most selective ones
+     * are checked first
+     * Only consecutive independent conditions are reordered, a condition that is not independent staying in place
+     */
+    private void reorderConditions() {
+        ConditionOrder<T> current = conditionOrder;
+        ConditionStats<T>[] order = current.stats.clone();
+        Comparator<ConditionStats<T>> byCost = Comparator.comparingDouble(ConditionStats::getCostPerRejection);
+        for (int begin = 0; begin < order.length; begin++) {
+            if(!order[begin].getCondition().isIndependent())
+                continue;
+            int end = begin;
+            while (end < order.length && order[end].getCondition().isIndependent())
+                end++;
+            Arrays.sort(order, begin, end, byCost);
+            begin = end;
+        }
+        if(!Arrays.equals(order, current.stats))
+            conditionOrder = new ConditionOrder<>(order);
+    }
+
+    /**
+     * Get the statistics of the conditions of the move, in the order they are currently checked
+     * Moves shared by many boards gather the statistics of all of them, recorded while they are enabled
+     * @return Statistics of each condition
+     */
+    public List<ConditionStats<T>> getConditionStats() {
+        return List.of(conditionOrder.stats);
+    }
+
+    /**
+     * Enable or disable the statistics of the conditions of every move, and the reordering based on them
+     * Disabled by default, checking the conditions then costs no counting nor timing
+     * @param enabled Either the statistics are recorded or not
+     */
+    public static void setConditionStatsEnabled(boolean enabled) {
+        isConditionStatsEnabled = enabled;
+    }
+
+    /**
+     * Check if the statistics of the conditions are recorded
+     * @return Either the statistics are enabled or not
+     */
+    public static boolean isConditionStatsEnabled() {
+        return isConditionStatsEnabled;
     }
 
     /**
@@ -43,6 +210,30 @@ public class Move<T extends Board<T>> {
         this(vector, isMirroredX, isMirroredY, null, null);
     }
 
+    /**
+     * Get the unit steps of the directions the move can follow
+     * @return List of unit steps
+     */
+    List<Vector> getDirections() {
+        return directions;
+    }
+
+    /**
+     * Get the maximum number of steps the move can make in a direction
+     * @return Number of steps
+     */
+    int getReach() {
+        return reach;
+    }
+
+    /**
+     * Check if the move stops at the first piece met in a direction
+     * @return Either the move is blocked by pieces or not
+     */
+    boolean isBlockable() {
+        return isBlockable;
+    }
+
     /**
      * Check conditions for moves
      * @param start Vector from where the action starts
@@ -54,80 +245,121 @@ public class Move<T extends Board<T>> {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
         Objects.requireNonNull(t, "board must be non null");
+        return checkConditions(t.indexOf(start), t.indexOf(destination), t);
+    }
 
-        if (conditions != null) {
-            for (GameCondition<T> condition : conditions) {
-                if (!condition.checkCondition(start, destination, t)) {
-                    return false;
-                }
-            }
+    /**
+     * Check conditions for moves by square indexes
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param t Concerned Board on which the action will be performed
+     * @return Either the move is legit or not
+     */
+    protected boolean checkConditions(int start, int destination, Board<T> t) {
+        Objects.requireNonNull(t, "board must be non null");
+        if(!isConditionStatsEnabled)
+            return conditionOrder.chain.check(start, destination, t);
+        // The period is a power of two, so the counter can wrap around
+        if((checks.incrementAndGet() & (REORDER_PERIOD - 1)) == 0)
+            reorderConditions();
+        for (ConditionStats<T> condition : conditionOrder.stats) {
+            if(!condition.check(start, destination, t))
+                return false;
         }
         return true;
     }
 
     /**
      * Check if a move can be made from start to destination
-     * @param start Vector from where the action starts
-     * @param destination Vector to where the action ends
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
      * @param t Concerned Board on which the action will be performed
      * @return Either the move is legit or not
      */
-    boolean canMove(Vector start, Vector destination, Board<T> t){
-        Objects.requireNonNull(start, "start vector must be non null");
-        Objects.requireNonNull(destination, "destination vector must be non null");
+    boolean canMove(int start, int destination, Board<T> t){
         Objects.requireNonNull(t, "board must be non null");
 
-        Vector movementVector = new Vector(destination.getI() - start.getI(), destination.getJ() - start.getJ());
-
-        if(vector.norm() < movementVector.norm()){
+        Position from = t.getPosition(start), to = t.getPosition(destination);
+        int di = to.getI() - from.getI(), dj = to.getJ() - from.getJ();
+        Geometry geometry = t.getGeometry();
+        if(geometry.getDistance(di, dj) > reach){
             return false;
         }
 
         // Check si dans la bonne direction
-        return ((movementVector.areCollinearAndSameDirection(vector) ||
-                (isMirroredX && movementVector.areCollinearAndSameDirection(vector.getMirrorXVector())) ||
-                (isMirroredY && movementVector.areCollinearAndSameDirection(vector.getMirrorYVector())) ||
-                (isMirroredX && isMirroredY && movementVector.areCollinearAndSameDirection(vector.getOpposedVector())))
-                && checkConditions(start, destination, t));
+        return isDirection(geometry.getStepI(di, dj), geometry.getStepJ(di, dj))
+                && checkConditions(start, destination, t);
     }
 
     /**
-     * Perform a move
-     * @param start Vector from where the move starts
-     * @param destination Vector to where the move ends
+     * Check if a unit step is one of the directions of the move
+     * @param stepI Index i of the unit step
+     * @param stepJ Index j of the unit step
+     * @return Either the move can follow the step or not
+     */
+    private boolean isDirection(int stepI, int stepJ){
+        for (int k = 0; k < directions.size(); k++) {
+            Vector direction = directions.get(k);
+            if(direction.getI() == stepI && direction.getJ() == stepJ)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Perform a move, the pieces affected by its actions being added to the move being recorded in the historic
+     * @param start Index of the square from where the move starts
+     * @param destination Index of the square to where the move ends
      * @param t Concerned Board on which the move will be performed
-     * @return List of affected pieces
      */
-    ArrayList<Piece<T>> doMove(Vector start, Vector destination, T t){
-        Objects.requireNonNull(start, "start vector must be non null");
-        Objects.requireNonNull(destination, "destination vector must be non null");
+    void doMove(int start, int destination, T t){
         Objects.requireNonNull(t, "board must be non null");
-
-        ArrayList<Piece<T>> affectedPieces = new ArrayList<>();
         if(actions != null) {
-            for (GameAction<T> actionToDo : actions) {
-                   affectedPieces.add(actionToDo.doAction(start, destination, t));
+            for (int k = 0; k < actions.size(); k++) {
+                t.historicMoves.addAffectedPiece(actions.get(k).doAction(start, destination, t));
             }
         }
-        return affectedPieces;
     }
 
     /**
      * Revert a move
-     * @param start Vector from where the move started
-     * @param destination Vector to where the move ended
-     * @param affectedPieces List of affected pieces
+     * @param start Index of the square from where the move started
+     * @param destination Index of the square to where the move ended
+     * @param affectedPieces Affected pieces of the historic, one per action
+     * @param offset Index of the first affected piece of the move
      * @param t Concerned Board on which the move will be performed
      */
-    void revertMove(Vector start, Vector destination, List<Piece<T>> affectedPieces, Board<T> t){
-        Objects.requireNonNull(start, "start vector must be non null");
-        Objects.requireNonNull(destination, "destination vector must be non null");
+    void revertMove(int start, int destination, Piece<T>[] affectedPieces, int offset, Board<T> t){
         Objects.requireNonNull(t, "board must be non null");
 
         if(actions != null) {
             for (int i = actions.size() - 1; i >= 0; i--) {
-                actions.get(i).revertAction(start, destination, affectedPieces.get(i), t);
+                actions.get(i).revertAction(start, destination, affectedPieces[offset + i], t);
+            }
+        }
+    }
+
+    /**
+     * Conditions in the order they are checked, compiled into a chain, with their statistics at the same indexes
+     * Never modified once built, so that a reordering is published by replacing it
+     * @param <T> Type of Board
+     */
+    private static final class ConditionOrder<T extends Board<T>> {
+        private final ConditionChain<T> chain;
+        private final ConditionStats<T>[] stats;
+
+        /**
+         * ConditionOrder constructor
+         * @param stats Statistics of the conditions, in the order they are checked
+         */
+        @SuppressWarnings("unchecked")
+        private ConditionOrder(ConditionStats<T>[] stats) {
+            this.stats = stats;
+            GameCondition<T>[] conditions = (GameCondition<T>[]) new GameCondition<?>[stats.length];
+            for (int k = 0; k < stats.length; k++) {
+                conditions[k] = stats[k].getCondition();
             }
+            chain = compileConditions(conditions);
         }
     }
 }
@@ -0,0 +1,183 @@
+package engine.game.board;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Growable list of moves encoded by PackedMove
+ * Moves are stored in a primitive buffer that is kept between uses : clearing the list does not release it
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+public final class MoveList {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private int[] moves;
+    private int size;
+
+    // Sort keys packed with the index of their move, and second buffer, kept to sort without allocating
+    private long[] sortKeys;
+    private int[] sorted;
+
+    /**
+     * MoveList constructor
+     */
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * MoveList constructor
+     * @param capacity Initial capacity of the buffer
+     */
+    public MoveList(int capacity) {
+        if(capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be above 0");
+        moves = new int[capacity];
+        sortKeys = new long[0];
+        sorted = new int[0];
+    }
+
+    /**
+     * Add a move at the end of the list
+     * @param move Encoded move
+     */
+    public void add(int move) {
+        if(size == moves.length)
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        moves[size++] = move;
+    }
+
+    /**
+     * Get a move of the list
+     * @param index Index of the move in the list
+     * @return Encoded move
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return moves[index];
+    }
+
+    /**
+     * Replace a move of the list
+     * @param index Index of the move in the list
+     * @param move Encoded move
+     */
+    public void set(int index, int move) {
+        checkIndex(index);
+        moves[index] = move;
+    }
+
+    /**
+     * Remove a move of the list, the last move taking its place
+     * @param index Index of the move in the list
+     * @return Removed move
+     */
+    public int removeSwap(int index) {
+        checkIndex(index);
+        int removed = moves[index];
+        moves[index] = moves[--size];
+        return removed;
+    }
+
+    /**
+     * Get the number of moves in the list
+     * @return Number of moves
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if the list is empty
+     * @return Either the list is empty or not
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove the moves after a given size, used to drop the moves added since a mark
+     * @param size New size of the list
+     */
+    public void truncate(int size) {
+        if(size < 0 || size > this.size)
+            throw new IllegalArgumentException("Size is out of bounds");
+        this.size = size;
+    }
+
+    /**
+     * Remove all moves, the buffer is kept
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Check if the list contains a move
+     * @param move Encoded move
+     * @return Either the move is in the list or not
+     */
+    public boolean contains(int move) {
+        for (int k = 0; k < size; k++) {
+            if(moves[k] == move)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sort the moves by increasing key, moves of equal keys keep their order
+     * @param key Function giving the key of a move
+     * @return This list
+     */
+    public MoveList sort(IntUnaryOperator key) {
+        Objects.requireNonNull(key, "key must be non null");
+        if(sortKeys.length < size) {
+            sortKeys = new long[moves.length];
+            sorted = new int[moves.length];
+        }
+        for (int k = 0; k < size; k++) {
+            sortKeys[k] = (long) key.applyAsInt(moves[k]) << Integer.SIZE | k;
+        }
+        Arrays.sort(sortKeys, 0, size);
+        for (int k = 0; k < size; k++) {
+            sorted[k] = moves[(int) sortKeys[k]];
+        }
+        int[] unsorted = moves;
+        moves = sorted;
+        sorted = unsorted;
+        return this;
+    }
+
+    /**
+     * Get a copy of the moves
+     * @return Array of the encoded moves
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    /**
+     * Get the list to a string formatted value
+     * @return String formatted value of the list
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int k = 0; k < size; k++) {
+            builder.append(k == 0 ? "" : ", ").append(PackedMove.toString(moves[k]));
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Check if an index is in the list
+     * @param index Index of a move
+     */
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size);
+    }
+}
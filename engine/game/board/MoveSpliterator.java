@@ -0,0 +1,108 @@
+package engine.game.board;
+
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Lazy source of the possible moves of a set of pieces, encoded by PackedMove
+ * The moves of a piece are only generated when they are reached, and splitting hands over half of the pieces not
+ * started yet, so that parallel streams analyse the pieces of a side in several threads
+ * The board must not be modified while the moves are consumed
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ * @param <T> Type of Board
+ */
+public class MoveSpliterator<T extends Board<T>> implements Spliterator.OfInt {
+    // Estimated number of moves of a piece
+    private static final int MOVES_PER_PIECE = 8;
+
+    private final Board<T> board;
+    private final int[] squares;
+    private int current;
+    private final int end;
+
+    // Moves of the piece being consumed, null before its first move is requested
+    private PrimitiveIterator.OfInt moves;
+
+    /**
+     * MoveSpliterator constructor
+     * @param board Board of the pieces
+     * @param squares Indexes of the squares of the pieces
+     */
+    public MoveSpliterator(Board<T> board, int[] squares) {
+        this(board, Objects.requireNonNull(squares, "squares must be non null"), 0, squares.length);
+    }
+
+    /**
+     * MoveSpliterator constructor
+     * @param board Board of the pieces
+     * @param squares Indexes of the squares of the pieces
+     * @param current Index of the first piece in the squares
+     * @param end Index after the last piece in the squares
+     */
+    private MoveSpliterator(Board<T> board, int[] squares, int current, int end) {
+        this.board = Objects.requireNonNull(board, "board must be non null");
+        this.squares = squares;
+        this.current = current;
+        this.end = end;
+    }
+
+    /**
+     * Consume the next move if there is one
+     * @param action Consumer of the move
+     * @return Either a move has been consumed or not
+     */
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+        Objects.requireNonNull(action, "action must be non null");
+        while (current < end) {
+            if(moves == null)
+                moves = board.getPieceAtPosition(squares[current]).moves(squares[current]);
+            if(moves.hasNext()) {
+                action.accept(moves.nextInt());
+                return true;
+            }
+            moves = null;
+            current++;
+        }
+        return false;
+    }
+
+    /**
+     * Split the pieces not started yet
+     * @return Source of the moves of the first half of the pieces, null if they can not be split
+     */
+    @Override
+    public Spliterator.OfInt trySplit() {
+        // The piece being consumed stays with the prefix to keep the moves in order
+        int first = moves == null ? current : current + 1;
+        int middle = (first + end) >>> 1;
+        if(middle <= first)
+            return null;
+        MoveSpliterator<T> prefix = new MoveSpliterator<>(board, squares, current, middle);
+        prefix.moves = moves;
+        moves = null;
+        current = middle;
+        return prefix;
+    }
+
+    /**
+     * Estimate the number of remaining moves
+     * @return Estimated number of moves
+     */
+    @Override
+    public long estimateSize() {
+        return (long) (end - current) * MOVES_PER_PIECE;
+    }
+
+    /**
+     * Get the characteristics of the source
+     * @return Moves are ordered, and each move is given once
+     */
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL;
+    }
+}
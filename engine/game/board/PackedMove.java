@@ -0,0 +1,112 @@
+package engine.game.board;
+
+/**
+ * Compact encoding of a move in a single int
+ * Bits 0 to 9 hold the start square, bits 10 to 19 the destination square, bits 20 to 27 the id of the move
+ * rule on its board and bits 28 to 31 the promotion code, 0 meaning no promotion
+ * Square indexes are i + j * length, the promotion code is interpreted by the board
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+public final class PackedMove {
+    public static final int MAX_SQUARES = 1 << 10;
+    public static final int MAX_RULES = 1 << 8;
+    public static final int MAX_PROMOTIONS = 1 << 4;
+    public static final int NO_PROMOTION = 0;
+
+    private static final int SQUARE_MASK = MAX_SQUARES - 1;
+    private static final int RULE_MASK = MAX_RULES - 1;
+    private static final int TO_SHIFT = 10;
+    private static final int RULE_SHIFT = 20;
+    private static final int PROMOTION_SHIFT = 28;
+
+    /**
+     * PackedMove can not be instantiated
+     */
+    private PackedMove() {}
+
+    /**
+     * Encode a move without promotion
+     * @param from Index of the start square
+     * @param to Index of the destination square
+     * @param rule Id of the move rule on the board
+     * @return Encoded move
+     */
+    public static int of(int from, int to, int rule) {
+        return of(from, to, rule, NO_PROMOTION);
+    }
+
+    /**
+     * Encode a move
+     * @param from Index of the start square
+     * @param to Index of the destination square
+     * @param rule Id of the move rule on the board
+     * @param promotion Promotion code, 0 if there is no promotion
+     * @return Encoded move
+     */
+    public static int of(int from, int to, int rule, int promotion) {
+        if(from < 0 || from >= MAX_SQUARES || to < 0 || to >= MAX_SQUARES)
+            throw new IllegalArgumentException("Position is out of bounds");
+        if(rule < 0 || rule >= MAX_RULES)
+            throw new IllegalArgumentException("Rule id is out of bounds");
+        if(promotion < 0 || promotion >= MAX_PROMOTIONS)
+            throw new IllegalArgumentException("Promotion code is out of bounds");
+        return from | to << TO_SHIFT | rule << RULE_SHIFT | promotion << PROMOTION_SHIFT;
+    }
+
+    /**
+     * Get the start square of a move
+     * @param move Encoded move
+     * @return Index of the start square
+     */
+    public static int getFrom(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Get the destination square of a move
+     * @param move Encoded move
+     * @return Index of the destination square
+     */
+    public static int getTo(int move) {
+        return move >>> TO_SHIFT & SQUARE_MASK;
+    }
+
+    /**
+     * Get the rule of a move
+     * @param move Encoded move
+     * @return Id of the move rule on the board
+     */
+    public static int getRule(int move) {
+        return move >>> RULE_SHIFT & RULE_MASK;
+    }
+
+    /**
+     * Get the promotion of a move
+     * @param move Encoded move
+     * @return Promotion code, 0 if there is no promotion
+     */
+    public static int getPromotion(int move) {
+        return move >>> PROMOTION_SHIFT;
+    }
+
+    /**
+     * Get a copy of a move with another promotion
+     * @param move Encoded move
+     * @param promotion Promotion code, 0 if there is no promotion
+     * @return Encoded move
+     */
+    public static int withPromotion(int move, int promotion) {
+        return of(getFrom(move), getTo(move), getRule(move), promotion);
+    }
+
+    /**
+     * Get a move to a readable string
+     * @param move Encoded move
+     * @return String formatted move
+     */
+    public static String toString(int move) {
+        return getFrom(move) + "-" + getTo(move) + "#" + getRule(move)
+                + (getPromotion(move) == NO_PROMOTION ? "" : "=" + getPromotion(move));
+    }
+}
@@ -4,7 +4,9 @@ import chess.ChessView;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.PrimitiveIterator;
 
 /**
  * Manage pieces move
@@ -16,6 +18,9 @@ public abstract class Piece<T extends Board<T>> implements ChessView.UserChoice
     private final T board;
     private final List<Move<T>> movements;
 
+    // Ids of the movements on the board, at the same indexes, so that encoding a move looks nothing up
+    private final int[] ruleIds;
+
     /**
      * Piece constructor
      * @param board The board type
@@ -23,7 +28,11 @@ public abstract class Piece<T extends Board<T>> implements ChessView.UserChoice
      */
     public Piece(T board, List<Move<T>> moves) {
         this.board = Objects.requireNonNull(board, "board must be non null");
-        this.movements = moves;
+        this.movements = Objects.requireNonNull(moves, "moves must be non null");
+        ruleIds = new int[moves.size()];
+        for (int k = 0; k < ruleIds.length; k++) {
+            ruleIds[k] = board.registerRule(moves.get(k));
+        }
     }
 
     /**
@@ -34,6 +43,19 @@ public abstract class Piece<T extends Board<T>> implements ChessView.UserChoice
         return board;
     }
 
+    /**
+     * Check if a rule is one of the movements of the piece
+     * @param rule Id of the rule on the board
+     * @return Either the piece moves with the rule or not
+     */
+    public boolean hasRule(int rule) {
+        for (int id : ruleIds) {
+            if(id == rule)
+                return true;
+        }
+        return false;
+    }
+
     /**
      * Move a piece
      * @param fromX Start X value
@@ -44,8 +66,19 @@ public abstract class Piece<T extends Board<T>> implements ChessView.UserChoice
      * @return Either the piece can move or not
      */
     public boolean move(int fromX, int fromY, int toX, int toY, boolean doMove){
-        for (Move<T> moveType: movements) {
-            Vector start = new Vector(fromX, fromY), destination = new Vector(toX, toY);
+        return move(getBoard().getPosition(fromX, fromY).getIndex(), getBoard().getPosition(toX, toY).getIndex(), doMove);
+    }
+
+    /**
+     * Move a piece by square indexes
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param doMove Perform or simulate the move
+     * @return Either the piece can move or not
+     */
+    public boolean move(int start, int destination, boolean doMove){
+        for (int k = 0; k < movements.size(); k++) {
+            Move<T> moveType = movements.get(k);
             if(canMove(start, destination, moveType)){
                 if(doMove) {
                     doMove(start, destination, moveType);
@@ -64,9 +97,20 @@ public abstract class Piece<T extends Board<T>> implements ChessView.UserChoice
      * @return Either the move is legit or not
      */
     protected boolean canMove(Vector start, Vector destination, Move<T> moveType){
+        return canMove(getBoard().indexOf(Objects.requireNonNull(start, "start vector must be non null")),
+                getBoard().indexOf(Objects.requireNonNull(destination, "destination vector must be non null")), moveType);
+    }
+
+    /**
+     * Check if a move can be made from start to destination by square indexes
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param moveType Move type
+     * @return Either the move is legit or not
+     */
+    protected boolean canMove(int start, int destination, Move<T> moveType){
         Objects.requireNonNull(moveType, "the move type must be non null");
-        return moveType.canMove(Objects.requireNonNull(start, "start vector must be non null"),
-                Objects.requireNonNull(destination, "destination vector must be non null"), getBoard());
+        return moveType.canMove(start, destination, getBoard());
     }
 
     /**
@@ -78,8 +122,20 @@ public abstract class Piece<T extends Board<T>> implements ChessView.UserChoice
     protected void doMove(Vector start, Vector destination, Move<T> moveType){
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
+        doMove(getBoard().indexOf(start), getBoard().indexOf(destination), moveType);
+    }
+
+    /**
+     * Perform a move by square indexes
+     * @param start Index of the square from where the move starts
+     * @param destination Index of the square to where the move ends
+     * @param moveType Move type
+     */
+    protected void doMove(int start, int destination, Move<T> moveType){
         Objects.requireNonNull(moveType, "moveType must be non null");
-        getBoard().historicMoves.add(this, moveType, start, destination, moveType.doMove(start, destination, getBoard()));
+        getBoard().historicMoves.add(this, moveType, start, destination, getBoard().getIrreversibleState());
+        moveType.doMove(start, destination, getBoard());
+        getBoard().updateIrreversibleState(this, moveType, start, destination);
     }
 
     /**
@@ -92,7 +148,7 @@ public abstract class Piece<T extends Board<T>> implements ChessView.UserChoice
     public boolean move(Vector start, Vector destination, boolean doMove){
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
-        return move(start.getI(), start.getJ(), destination.getI(), destination.getJ(), doMove);
+        return move(getBoard().indexOf(start), getBoard().indexOf(destination), doMove);
     }
 
     /**
@@ -101,21 +157,198 @@ public abstract class Piece<T extends Board<T>> implements ChessView.UserChoice
      * @return List of all possible moves
      */
     public List<Vector> possibleMoves(Vector start){
-        Objects.requireNonNull(start, "start vector must be non null");
-        List<Vector> possibleMoves = new ArrayList<>();
-        for (Move<T> moveType: movements) {
-            for (int i = 0; i < getBoard().getLENGTH(); i++) {
-                for (int j = 0; j < getBoard().getHEIGHT() ; j++) {
-                    Vector destination = new Vector(i, j);
-                    if(canMove(start, destination, moveType)){
-                        possibleMoves.add(destination);
+        return possibleMoves(getBoard().indexOf(Objects.requireNonNull(start, "start vector must be non null")));
+    }
+
+    /**
+     * Lists all possible moves of a piece by square index
+     * @param start Index of the start square of the piece
+     * @return List of all possible moves
+     */
+    public List<Vector> possibleMoves(int start){
+        MoveList moves = new MoveList();
+        possibleMoves(start, moves);
+        List<Vector> possibleMoves = new ArrayList<>(moves.size());
+        for (int k = 0; k < moves.size(); k++) {
+            Position destination = getBoard().getPosition(PackedMove.getTo(moves.get(k)));
+            if(!possibleMoves.contains(destination))
+                possibleMoves.add(destination);
+        }
+        return possibleMoves;
+    }
+
+    /**
+     * Add all possible moves of a piece to a list of encoded moves
+     * Only the squares along the directions of each move are visited, up to the first blocking piece
+     * Each destination is added once, with the first move rule of the piece that can reach it
+     * @param start Index of the start square of the piece
+     * @param moves List to which the moves are added
+     * @return Number of added moves
+     */
+    public int possibleMoves(int start, MoveList moves){
+        Objects.requireNonNull(moves, "moves must be non null");
+        return walkMoves(start, moves);
+    }
+
+    /**
+     * Check if the piece has at least one possible move, stopping at the first one found
+     * @param start Index of the start square of the piece
+     * @return Either the piece can move or not
+     */
+    public boolean hasPossibleMove(int start){
+        return walkMoves(start, null) > 0;
+    }
+
+    /**
+     * Walk the squares along the directions of each move, up to the first blocking piece
+     * @param start Index of the start square of the piece
+     * @param moves List to which the moves are added, null to stop at the first possible move
+     * @return Number of possible moves found
+     */
+    private int walkMoves(int start, MoveList moves){
+        Position from = getBoard().getPosition(start);
+        int first = moves == null ? 0 : moves.size();
+        for (int k = 0; k < movements.size(); k++) {
+            Move<T> moveType = movements.get(k);
+            int rule = ruleIds[k];
+            for (Vector direction : moveType.getDirections()) {
+                for (int step = 1; step <= moveType.getReach(); step++) {
+                    int i = from.getI() + step * direction.getI(), j = from.getJ() + step * direction.getJ();
+                    if(i < 0 || j < 0 || i >= getBoard().getLENGTH() || j >= getBoard().getHEIGHT())
+                        break;
+                    int destination = getBoard().getPosition(i, j).getIndex();
+                    if(moves == null){
+                        if(canMove(start, destination, moveType))
+                            return 1;
+                    } else if(!isDestinationAdded(moves, first, destination) && canMove(start, destination, moveType)){
+                        addMove(PackedMove.of(start, destination, rule), moves);
                     }
+                    if(moveType.isBlockable() && getBoard().getPieceAtPosition(destination) != null)
+                        break;
                 }
             }
         }
-        return possibleMoves;
+        return moves == null ? 0 : moves.size() - first;
+    }
+
+    /**
+     * Add a possible move to a list of encoded moves, a piece can override it to add variants of the move
+     * @param move Encoded move
+     * @param moves List to which the move is added
+     */
+    protected void addMove(int move, MoveList moves){
+        moves.add(move);
+    }
+
+    /**
+     * Iterate lazily over the possible moves of a piece, in the order of possibleMoves
+     * A square is only checked when the next move is requested, so a caller stopping early skips the remaining ones
+     * The board must not be modified while iterating
+     * @param start Index of the start square of the piece
+     * @return Iterator over the encoded moves
+     */
+    public PrimitiveIterator.OfInt moves(int start){
+        return new MoveIterator(start);
+    }
+
+    /**
+     * Check if a destination is already reached by the moves added since a mark
+     * @param moves List of encoded moves
+     * @param first Index of the first move added
+     * @param destination Index of the destination square
+     * @return Either the destination is reached or not
+     */
+    private static boolean isDestinationAdded(MoveList moves, int first, int destination){
+        for (int k = first; k < moves.size(); k++) {
+            if(PackedMove.getTo(moves.get(k)) == destination)
+                return true;
+        }
+        return false;
     }
 
+    /**
+     * Lazy walk of the squares along the directions of each move of the piece
+     */
+    private class MoveIterator implements PrimitiveIterator.OfInt {
+        private final int start;
+        private final Position from;
+
+        // Next square to check : move rule, direction of the rule and step along the direction
+        private int ruleIndex;
+        private int directionIndex;
+        private int step;
+
+        // Moves found, the ones not returned yet starting at next
+        private final MoveList found;
+        private int next;
+
+        /**
+         * MoveIterator constructor
+         * @param start Index of the start square of the piece
+         */
+        private MoveIterator(int start) {
+            this.start = start;
+            from = getBoard().getPosition(start);
+            found = new MoveList();
+        }
+
+        /**
+         * Check if there is another move, walking the squares until one is found
+         * @return Either there is another move or not
+         */
+        @Override
+        public boolean hasNext() {
+            while (next == found.size() && ruleIndex < movements.size()) {
+                walkSquare();
+            }
+            return next < found.size();
+        }
+
+        /**
+         * Get the next move
+         * @return Encoded move
+         */
+        @Override
+        public int nextInt() {
+            if(!hasNext())
+                throw new NoSuchElementException("No more possible moves");
+            return found.get(next++);
+        }
+
+        /**
+         * Check the next square along the current direction and advance to the following one
+         */
+        private void walkSquare() {
+            Move<T> moveType = movements.get(ruleIndex);
+            List<Vector> directions = moveType.getDirections();
+            if(directionIndex == directions.size()) {
+                ruleIndex++;
+                directionIndex = 0;
+                step = 0;
+                return;
+            }
+            Vector direction = directions.get(directionIndex);
+            step++;
+            int i = from.getI() + step * direction.getI(), j = from.getJ() + step * direction.getJ();
+            if(step > moveType.getReach() || i < 0 || j < 0 || i >= getBoard().getLENGTH() || j >= getBoard().getHEIGHT()) {
+                nextDirection();
+                return;
+            }
+            int destination = getBoard().getPosition(i, j).getIndex();
+            if(!isDestinationAdded(found, 0, destination) && canMove(start, destination, moveType))
+                addMove(PackedMove.of(start, destination, ruleIds[ruleIndex]), found);
+            if(moveType.isBlockable() && getBoard().getPieceAtPosition(destination) != null)
+                nextDirection();
+        }
+
+        /**
+         * Advance to the first square of the next direction
+         */
+        private void nextDirection() {
+            directionIndex++;
+            step = 0;
+        }
+    }
 
     /**
      * Get Piece to a string formatted value
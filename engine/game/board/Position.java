@@ -0,0 +1,49 @@
+package engine.game.board;
+
+/**
+ * Immutable position of a square on a board
+ * Only one instance exists per square of a board size, given by Geometry.getPosition, so positions can be shared
+ * and compared by reference
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+public final class Position extends Vector {
+    private final int index;
+
+    /**
+     * Position constructor
+     * @param i Index i of the square
+     * @param j Index j of the square
+     * @param index Index of the square on its board
+     */
+    Position(int i, int j, int index) {
+        super(i, j);
+        this.index = index;
+    }
+
+    /**
+     * Get the index of the square on its board, i + j * length
+     * @return Index of the square
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Positions can not be modified
+     * @param i Index to be set
+     */
+    @Override
+    public void setI(int i) {
+        throw new UnsupportedOperationException("Position is immutable");
+    }
+
+    /**
+     * Positions can not be modified
+     * @param j Index to be set
+     */
+    @Override
+    public void setJ(int j) {
+        throw new UnsupportedOperationException("Position is immutable");
+    }
+}
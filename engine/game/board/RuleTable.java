@@ -0,0 +1,87 @@
+package engine.game.board;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable table of move rules, giving each rule the id used in the packed moves
+ * A table can be shared by every board using the same rules, registering a new rule on a board gives it a new table
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ * @param <T> Type of Board
+ */
+public final class RuleTable<T extends Board<T>> {
+    private final Move<T>[] rules;
+    private final Map<Move<T>, Integer> ids;
+
+    /**
+     * RuleTable constructor
+     * @param rules Rules indexed by their id
+     */
+    private RuleTable(Move<T>[] rules) {
+        this.rules = rules;
+        ids = new IdentityHashMap<>(rules.length);
+        for (int id = 0; id < rules.length; id++) {
+            if(ids.putIfAbsent(Objects.requireNonNull(rules[id], "rule must be non null"), id) != null)
+                throw new IllegalArgumentException("A rule is in the table twice");
+        }
+    }
+
+    /**
+     * Build a table of rules, ids being given in the order of the list
+     * @param rules Rules of the table
+     * @param <T> Type of Board
+     * @return Table of the rules
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Board<T>> RuleTable<T> of(List<Move<T>> rules) {
+        Objects.requireNonNull(rules, "rules must be non null");
+        if(rules.size() > PackedMove.MAX_RULES)
+            throw new IllegalStateException("Too many move rules on the board");
+        return new RuleTable<>(rules.toArray((Move<T>[]) new Move<?>[0]));
+    }
+
+    /**
+     * Get a table with one more rule, the last id being given to it
+     * @param rule Added rule
+     * @return New table
+     */
+    RuleTable<T> with(Move<T> rule) {
+        if(rules.length == PackedMove.MAX_RULES)
+            throw new IllegalStateException("Too many move rules on the board");
+        Move<T>[] extended = java.util.Arrays.copyOf(rules, rules.length + 1);
+        extended[rules.length] = rule;
+        return new RuleTable<>(extended);
+    }
+
+    /**
+     * Get the id of a rule
+     * @param rule Move rule
+     * @return Id of the rule, -1 if it is not in the table
+     */
+    int indexOf(Move<T> rule) {
+        Integer id = ids.get(rule);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Get a rule by its id
+     * @param id Id of the rule
+     * @return Move rule
+     */
+    Move<T> get(int id) {
+        if(id < 0 || id >= rules.length)
+            throw new IllegalArgumentException("Unknown rule id " + id);
+        return rules[id];
+    }
+
+    /**
+     * Get the number of rules
+     * @return Number of rules
+     */
+    int size() {
+        return rules.length;
+    }
+}
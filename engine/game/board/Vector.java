@@ -204,7 +204,7 @@ public class Vector {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Vector)) return false;
         Vector vector = (Vector) o;
         return i == vector.i && j == vector.j;
     }
@@ -215,6 +215,7 @@ public class Vector {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(i, j);
+        // Same value as Objects.hash(i, j), without boxing
+        return 31 * (31 + i) + j;
     }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package engine.game.chess;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Squares attacked by each color, updated when a square of the board is modified
+ * The attacks of each piece are kept with the number of attackers of each square, so that modifying a square only
+ * recomputes the piece on it and the sliders whose rays pass through it
+ * Reverting a move modifies the same squares back, which restores the map
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+class AttackMap {
+    private static final int NO_COLOR = -1;
+    private static final Chess.ChessPieceType[] TYPES = Chess.ChessPieceType.values();
+    private static final ChessColor[] COLORS = ChessColor.values();
+
+    private final BitBoard board;
+    private final Attacks attacks;
+    private final int nbWords;
+
+    // Squares attacked by the piece of each square, indexed by square * nbWords + word, and color of that piece
+    private final long[] pieceAttacks;
+    private final int[] pieceColors;
+
+    // Number of attackers of each square and attacked squares, per color
+    private final int[][] counts;
+    private final long[] attacked;
+
+    /**
+     * AttackMap constructor, the map is built from the current position
+     * @param board Bitboards of the position
+     * @param attacks Attack tables of the board
+     * @param nbSquares Number of squares of the board
+     */
+    AttackMap(BitBoard board, Attacks attacks, int nbSquares) {
+        this.board = Objects.requireNonNull(board, "board must be non null");
+        this.attacks = Objects.requireNonNull(attacks, "attacks must be non null");
+        nbWords = board.words();
+        pieceAttacks = new long[nbSquares * nbWords];
+        pieceColors = new int[nbSquares];
+        counts = new int[COLORS.length][nbSquares];
+        attacked = new long[COLORS.length * nbWords];
+        rebuild();
+    }
+
+    /**
+     * Build the map again from the current position
+     */
+    void rebuild() {
+        Arrays.fill(pieceColors, NO_COLOR);
+        Arrays.fill(attacked, 0L);
+        for (int[] count : counts) {
+            Arrays.fill(count, 0);
+        }
+        for (int word = 0; word < nbWords; word++) {
+            for (long occupied = board.occupied(word); occupied != 0; occupied &= occupied - 1) {
+                refresh((word << BitBoard.WORD_SHIFT) + Long.numberOfTrailingZeros(occupied));
+            }
+        }
+    }
+
+    /**
+     * Update the map after a square has been modified on the bitboards
+     * @param square Index of the modified square
+     */
+    void update(int square) {
+        refresh(square);
+        // Sliders seeing the square have their rays opened or closed by it
+        for (int direction = 0; direction < Attacks.NB_DIRECTIONS; direction++) {
+            int blocker = attacks.firstBlocker(board, direction, square);
+            if(blocker < 0)
+                continue;
+            for (ChessColor color : COLORS) {
+                if(attacks.isSlider(board, blocker, color, direction)) {
+                    refresh(blocker);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if a square is attacked
+     * @param attacker Attacking color
+     * @param square Index of the square
+     * @return Either the square is attacked by the color or not
+     */
+    boolean isAttacked(ChessColor attacker, int square) {
+        return (attacked[attacker.ordinal() * nbWords + BitBoard.word(square)] & BitBoard.bit(square)) != 0;
+    }
+
+    /**
+     * Count the pieces of a color attacking a square
+     * @param attacker Attacking color
+     * @param square Index of the square
+     * @return Number of attackers
+     */
+    int countAttackers(ChessColor attacker, int square) {
+        return counts[attacker.ordinal()][square];
+    }
+
+    /**
+     * Replace the attacks of the piece of a square by the ones of the current position
+     * @param square Index of the square
+     */
+    private void refresh(int square) {
+        if(pieceColors[square] != NO_COLOR)
+            count(pieceColors[square], square, -1);
+        pieceColors[square] = NO_COLOR;
+        if(!board.isOccupied(square))
+            return;
+        for (ChessColor color : COLORS) {
+            if(!board.contains(color, square))
+                continue;
+            for (Chess.ChessPieceType type : TYPES) {
+                if(board.contains(type, color, square)) {
+                    attacks.pieceAttacks(type, color, square, board, pieceAttacks, square * nbWords);
+                    pieceColors[square] = color.ordinal();
+                    count(color.ordinal(), square, 1);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Add or remove the attacks of a piece to the counts of its color
+     * @param color Ordinal of the color of the piece
+     * @param square Index of the square of the piece
+     * @param delta 1 to add the attacks, -1 to remove them
+     */
+    private void count(int color, int square, int delta) {
+        int[] count = counts[color];
+        for (int word = 0; word < nbWords; word++) {
+            for (long squares = pieceAttacks[square * nbWords + word]; squares != 0; squares &= squares - 1) {
+                int attackedSquare = (word << BitBoard.WORD_SHIFT) + Long.numberOfTrailingZeros(squares);
+                count[attackedSquare] += delta;
+                if(count[attackedSquare] == 0)
+                    attacked[color * nbWords + word] &= ~BitBoard.bit(attackedSquare);
+                else
+                    attacked[color * nbWords + word] |= BitBoard.bit(attackedSquare);
+            }
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package engine.game.chess;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed attack tables of a chess board geometry
+ * Attacks are looked up backwards from the attacked square : leapers through tables, sliders through the first
+ * blocker of each ray, so that a lookup costs one step per word of the board and never walks its squares
+ * Tables are built once per board size and shared by all chess of that size
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+final class Attacks {
+    private static final Map<Long, Attacks> TABLES = new ConcurrentHashMap<>();
+
+    // Ray directions, the first ones increase the square index, the last ones decrease it
+    private static final int[][] DIRECTIONS = {
+            {1, 0}, {0, 1}, {1, 1}, {-1, 1},
+            {-1, 0}, {0, -1}, {-1, -1}, {1, -1}
+    };
+    static final int NB_DIRECTIONS = DIRECTIONS.length;
+    private static final int NB_POSITIVE_DIRECTIONS = 4;
+    private static final int[] STRAIGHT_DIRECTIONS = {0, 1, 4, 5};
+    private static final int[] DIAGONAL_DIRECTIONS = {2, 3, 6, 7};
+    private static final int NO_SQUARE = -1;
+
+    private static final int[][] KNIGHT_OFFSETS = {
+            {1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}
+    };
+    private static final int[][] KING_OFFSETS = {
+            {1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}
+    };
+
+    private final int length;
+    private final int height;
+    private final int nbWords;
+
+    // Sets of squares indexed by square * nbWords + word
+    private final long[] knight;
+    private final long[] king;
+    private final long[][] pawn;
+    private final long[][] rays;
+
+    // Union of the straight rays and of the diagonal rays of each square, to skip the sliders that can not attack it
+    private final long[] straightLines;
+    private final long[] diagonalLines;
+
+    /**
+     * Get the attack tables of a board size
+     * @param length Length of the board
+     * @param height Height of the board
+     * @return Shared attack tables
+     */
+    static Attacks of(int length, int height) {
+        if(length <= 0 || height <= 0)
+            throw new IllegalArgumentException("Size must be above 0");
+        return TABLES.computeIfAbsent(((long) length << Integer.SIZE) | height, key -> new Attacks(length, height));
+    }
+
+    /**
+     * Attacks constructor
+     * @param length Length of the board
+     * @param height Height of the board
+     */
+    private Attacks(int length, int height) {
+        this.length = length;
+        this.height = height;
+        int nbSquares = length * height;
+        nbWords = BitBoard.words(nbSquares);
+        knight = new long[nbSquares * nbWords];
+        king = new long[nbSquares * nbWords];
+        pawn = new long[ChessColor.values().length][nbSquares * nbWords];
+        rays = new long[DIRECTIONS.length][nbSquares * nbWords];
+        straightLines = new long[nbSquares * nbWords];
+        diagonalLines = new long[nbSquares * nbWords];
+
+        for (int square = 0; square < nbSquares; square++) {
+            int i = square % length, j = square / length;
+            int base = square * nbWords;
+            offsets(i, j, KNIGHT_OFFSETS, knight, base);
+            offsets(i, j, KING_OFFSETS, king, base);
+            for (ChessColor color : ChessColor.values()) {
+                int forward = forward(color);
+                offsets(i, j, new int[][]{{1, forward}, {-1, forward}}, pawn[color.ordinal()], base);
+            }
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                for (int ri = i + DIRECTIONS[d][0], rj = j + DIRECTIONS[d][1]; isInside(ri, rj);
+                     ri += DIRECTIONS[d][0], rj += DIRECTIONS[d][1]) {
+                    add(rays[d], base, ri + rj * length);
+                    add(isStraight(d) ? straightLines : diagonalLines, base, ri + rj * length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the row increment of the pawns of a color
+     * @param color Color of the pawns
+     * @return Row increment
+     */
+    static int forward(ChessColor color) {
+        return Objects.requireNonNull(color, "color must be non null").getDirection() == Chess.Direction.UP ? 1 : -1;
+    }
+
+    /**
+     * Check if a square is attacked
+     * @param board Bitboards of the position
+     * @param square Attacked square index
+     * @param attacker Attacking color
+     * @return Either the square is attacked or not
+     */
+    boolean isAttacked(BitBoard board, int square, ChessColor attacker) {
+        return isAttacked(board, square, attacker, NO_SQUARE, NO_SQUARE, NO_SQUARE);
+    }
+
+    /**
+     * Check if a square is attacked once a piece of the defending color has moved
+     * The move is only simulated on the occupancy : the start and captured squares are emptied, the destination is
+     * filled, and the pieces on the destination and captured squares no longer attack
+     * @param board Bitboards of the position
+     * @param square Attacked square index
+     * @param attacker Attacking color
+     * @param from Start square index of the move, -1 for no move
+     * @param to Destination square index of the move, -1 for no move
+     * @param captured Captured square index, -1 if the move captures nothing
+     * @return Either the square is attacked or not
+     */
+    boolean isAttacked(BitBoard board, int square, ChessColor attacker, int from, int to, int captured) {
+        int base = square * nbWords;
+        long[] pawns = pawn[attacker.next().ordinal()];
+        for (int word = 0; word < nbWords; word++) {
+            long leapers = (knight[base + word] & board.pieces(Chess.ChessPieceType.KNIGHT, attacker, word))
+                    | (king[base + word] & board.pieces(Chess.ChessPieceType.KING, attacker, word))
+                    | (pawns[base + word] & board.pieces(Chess.ChessPieceType.PAWN, attacker, word));
+            if((leapers & ~(BitBoard.bit(to, word) | BitBoard.bit(captured, word))) != 0)
+                return true;
+        }
+        return isAttackedBySliders(board, square, attacker, from, to, captured, true)
+                || isAttackedBySliders(board, square, attacker, from, to, captured, false);
+    }
+
+    /**
+     * Check if a square is attacked by sliders along straight or diagonal rays once a move has been simulated
+     * The rays are only followed if an attacking slider is on one of them
+     * @param board Bitboards of the position
+     * @param square Attacked square index
+     * @param attacker Attacking color
+     * @param from Emptied start square index, -1 for none
+     * @param to Filled destination square index, -1 for none
+     * @param captured Emptied captured square index, -1 for none
+     * @param straight Straight rays if true, diagonal rays otherwise
+     * @return Either the square is attacked or not
+     */
+    private boolean isAttackedBySliders(BitBoard board, int square, ChessColor attacker, int from, int to, int captured,
+                                        boolean straight) {
+        if(!isOnSliderLine(board, square, attacker, straight))
+            return false;
+        for (int direction : straight ? STRAIGHT_DIRECTIONS : DIAGONAL_DIRECTIONS) {
+            if(!isOnSliderRay(board, direction, square, attacker))
+                continue;
+            int blocker = firstBlocker(board, direction, square, from, to, captured);
+            if(blocker != NO_SQUARE && blocker != to && isSlider(board, blocker, attacker, direction))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Lists all pieces attacking a square
+     * @param board Bitboards of the position
+     * @param square Attacked square index
+     * @param attacker Attacking color
+     * @param attackers Set to which the squares of the attacking pieces are written, one word per word of the board
+     */
+    void attackers(BitBoard board, int square, ChessColor attacker, long[] attackers) {
+        int base = square * nbWords;
+        long[] pawns = pawn[attacker.next().ordinal()];
+        for (int word = 0; word < nbWords; word++) {
+            attackers[word] = (knight[base + word] & board.pieces(Chess.ChessPieceType.KNIGHT, attacker, word))
+                    | (king[base + word] & board.pieces(Chess.ChessPieceType.KING, attacker, word))
+                    | (pawns[base + word] & board.pieces(Chess.ChessPieceType.PAWN, attacker, word));
+        }
+        for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+            if(!isOnSliderRay(board, direction, square, attacker))
+                continue;
+            int blocker = firstBlocker(board, direction, square);
+            if(blocker != NO_SQUARE && isSlider(board, blocker, attacker, direction))
+                attackers[BitBoard.word(blocker)] |= BitBoard.bit(blocker);
+        }
+    }
+
+    /**
+     * Count the pieces attacking a square
+     * @param board Bitboards of the position
+     * @param square Attacked square index
+     * @param attacker Attacking color
+     * @return Number of attacking pieces
+     */
+    int countAttackers(BitBoard board, int square, ChessColor attacker) {
+        long[] attackers = new long[nbWords];
+        attackers(board, square, attacker, attackers);
+        int count = 0;
+        for (long word : attackers) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Get the squares attacked by a piece
+     * @param type Type of the piece
+     * @param color Color of the piece
+     * @param square Square of the piece
+     * @param board Bitboards blocking the sliders
+     * @param attacked Array to which the attacked squares are written
+     * @param offset Index of the first word written in the array
+     */
+    void pieceAttacks(Chess.ChessPieceType type, ChessColor color, int square, BitBoard board, long[] attacked, int offset) {
+        int base = square * nbWords;
+        switch (type) {
+            case KNIGHT:
+                System.arraycopy(knight, base, attacked, offset, nbWords);
+                return;
+            case KING:
+                System.arraycopy(king, base, attacked, offset, nbWords);
+                return;
+            case PAWN:
+                System.arraycopy(pawn[color.ordinal()], base, attacked, offset, nbWords);
+                return;
+            default:
+                Arrays.fill(attacked, offset, offset + nbWords, 0L);
+                if(type != Chess.ChessPieceType.BISHOP)
+                    addRays(STRAIGHT_DIRECTIONS, square, board, attacked, offset);
+                if(type != Chess.ChessPieceType.ROOK)
+                    addRays(DIAGONAL_DIRECTIONS, square, board, attacked, offset);
+        }
+    }
+
+    /**
+     * Check if a square is strictly between two squares of a same line, column or diagonal
+     * @param from First square index
+     * @param to Second square index
+     * @param square Checked square index
+     * @return Either the square is in between or not, false if the two squares are not aligned
+     */
+    boolean isBetween(int from, int to, int square) {
+        int fromI = from % length, fromJ = from / length;
+        int di = to % length - fromI, dj = to / length - fromJ;
+        if(di != 0 && dj != 0 && Math.abs(di) != Math.abs(dj))
+            return false;
+        int si = square % length - fromI, sj = square / length - fromJ;
+        int steps = Math.max(Math.abs(si), Math.abs(sj));
+        return steps > 0 && steps < Math.max(Math.abs(di), Math.abs(dj))
+                && si == steps * Integer.signum(di) && sj == steps * Integer.signum(dj);
+    }
+
+    /**
+     * Get the first occupied square along a ray
+     * @param board Bitboards of the position
+     * @param direction Direction index
+     * @param square Starting square index, excluded from the ray
+     * @return Index of the first occupied square, -1 if the ray reaches the edge of the board
+     */
+    int firstBlocker(BitBoard board, int direction, int square) {
+        return firstBlocker(board, direction, square, NO_SQUARE, NO_SQUARE, NO_SQUARE);
+    }
+
+    /**
+     * Check if a slider of a color is on one of the straight or diagonal lines of a square, whatever blocks it
+     * @param board Bitboards of the position
+     * @param square Square index
+     * @param color Color of the sliders
+     * @param straight Straight lines if true, diagonal lines otherwise
+     * @return Either such a slider is on the lines or not
+     */
+    boolean isOnSliderLine(BitBoard board, int square, ChessColor color, boolean straight) {
+        Chess.ChessPieceType type = straight ? Chess.ChessPieceType.ROOK : Chess.ChessPieceType.BISHOP;
+        long[] lines = straight ? straightLines : diagonalLines;
+        int base = square * nbWords;
+        for (int word = 0; word < nbWords; word++) {
+            if((lines[base + word] & (board.pieces(type, color, word) | board.pieces(Chess.ChessPieceType.QUEEN, color, word))) != 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if a slider of a color able to attack along a ray is on it, whatever blocks it
+     * @param board Bitboards of the position
+     * @param direction Direction index
+     * @param square Starting square index
+     * @param color Color of the sliders
+     * @return Either such a slider is on the ray or not
+     */
+    boolean isOnSliderRay(BitBoard board, int direction, int square, ChessColor color) {
+        Chess.ChessPieceType type = isStraight(direction) ? Chess.ChessPieceType.ROOK : Chess.ChessPieceType.BISHOP;
+        long[] ray = rays[direction];
+        int base = square * nbWords;
+        for (int word = 0; word < nbWords; word++) {
+            if((ray[base + word] & (board.pieces(type, color, word) | board.pieces(Chess.ChessPieceType.QUEEN, color, word))) != 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if a direction is straight
+     * @param direction Direction index
+     * @return Either the direction follows a row or a column, or a diagonal
+     */
+    static boolean isStraight(int direction) {
+        return DIRECTIONS[direction][0] == 0 || DIRECTIONS[direction][1] == 0;
+    }
+
+    /**
+     * Check if a piece can attack along a direction, from either end of the ray
+     * @param board Bitboards of the position
+     * @param square Square index of the piece
+     * @param color Color of the piece
+     * @param direction Direction index
+     * @return Either the piece is a Queen, a Rook on a straight direction or a Bishop on a diagonal one
+     */
+    boolean isSlider(BitBoard board, int square, ChessColor color, int direction) {
+        return board.contains(Chess.ChessPieceType.QUEEN, color, square)
+                || board.contains(isStraight(direction) ? Chess.ChessPieceType.ROOK : Chess.ChessPieceType.BISHOP, color, square);
+    }
+
+    /**
+     * Get the first occupied square along a ray, once a move has been simulated on the occupancy
+     * @param board Bitboards of the position
+     * @param direction Direction index
+     * @param square Starting square index, excluded from the ray
+     * @param from Emptied start square index, -1 for none
+     * @param to Filled destination square index, -1 for none
+     * @param captured Emptied captured square index, -1 for none
+     * @return Index of the first occupied square, -1 if the ray reaches the edge of the board
+     */
+    private int firstBlocker(BitBoard board, int direction, int square, int from, int to, int captured) {
+        long[] ray = rays[direction];
+        int base = square * nbWords;
+        if(direction < NB_POSITIVE_DIRECTIONS) {
+            for (int word = BitBoard.word(square); word < nbWords; word++) {
+                long blockers = ray[base + word] & occupied(board, word, from, to, captured);
+                if(blockers != 0)
+                    return (word << BitBoard.WORD_SHIFT) + Long.numberOfTrailingZeros(blockers);
+            }
+        } else {
+            for (int word = BitBoard.word(square); word >= 0; word--) {
+                long blockers = ray[base + word] & occupied(board, word, from, to, captured);
+                if(blockers != 0)
+                    return (word << BitBoard.WORD_SHIFT) + Long.SIZE - 1 - Long.numberOfLeadingZeros(blockers);
+            }
+        }
+        return NO_SQUARE;
+    }
+
+    /**
+     * Get a word of the occupancy once a move has been simulated
+     * @param board Bitboards of the position
+     * @param word Index of the word
+     * @param from Emptied start square index, -1 for none
+     * @param to Filled destination square index, -1 for none
+     * @param captured Emptied captured square index, -1 for none
+     * @return Occupancy word
+     */
+    private static long occupied(BitBoard board, int word, int from, int to, int captured) {
+        return (board.occupied(word) & ~(BitBoard.bit(from, word) | BitBoard.bit(captured, word))) | BitBoard.bit(to, word);
+    }
+
+    /**
+     * Add the squares reached along rays, up to and including the first blockers
+     * @param directions Direction indexes
+     * @param square Starting square index
+     * @param board Bitboards blocking the rays
+     * @param attacked Array to which the reached squares are added
+     * @param offset Index of the first word in the array
+     */
+    private void addRays(int[] directions, int square, BitBoard board, long[] attacked, int offset) {
+        int base = square * nbWords;
+        for (int direction : directions) {
+            long[] ray = rays[direction];
+            int blocker = firstBlocker(board, direction, square);
+            for (int word = 0; word < nbWords; word++) {
+                long beyond = blocker == NO_SQUARE ? 0L : ray[blocker * nbWords + word];
+                attacked[offset + word] |= ray[base + word] & ~beyond;
+            }
+        }
+    }
+
+    /**
+     * Build the table entry of a leaper
+     * @param i Index i of the square
+     * @param j Index j of the square
+     * @param offsets Jumps of the leaper
+     * @param table Table of the leaper
+     * @param base Index of the first word of the entry
+     */
+    private void offsets(int i, int j, int[][] offsets, long[] table, int base) {
+        for (int[] offset : offsets) {
+            if(isInside(i + offset[0], j + offset[1]))
+                add(table, base, i + offset[0] + (j + offset[1]) * length);
+        }
+    }
+
+    /**
+     * Add a square to a set of a table
+     * @param table Table of sets
+     * @param base Index of the first word of the set
+     * @param square Added square index
+     */
+    private static void add(long[] table, int base, int square) {
+        table[base + BitBoard.word(square)] |= BitBoard.bit(square);
+    }
+
+    /**
+     * Check if coordinates are on the board
+     * @param i Index i
+     * @param j Index j
+     * @return Either the coordinates are on the board or not
+     */
+    private boolean isInside(int i, int j) {
+        return i >= 0 && j >= 0 && i < length && j < height;
+    }
+}
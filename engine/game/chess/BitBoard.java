@@ -0,0 +1,238 @@
+package engine.game.chess;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Bitboard representation of a chess position
+ * Every square of the board is a bit of a set of 64-bit words, bit index being i + j * length, so that boards of
+ * more than 64 squares are held in several words
+ * One set is kept per piece type and color, plus aggregated occupancies per color
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+class BitBoard {
+    static final int WORD_SHIFT = 6;
+
+    private static final int NB_TYPES = Chess.ChessPieceType.values().length;
+    private static final int NB_COLORS = ChessColor.values().length;
+
+    private final int nbWords;
+    private final long[] pieces;
+    private final long[] colors;
+    private final long[] occupied;
+
+    /**
+     * BitBoard constructor
+     * @param nbSquares Number of squares of the board
+     */
+    BitBoard(int nbSquares) {
+        if(nbSquares <= 0)
+            throw new IllegalArgumentException("Number of squares must be above 0");
+        nbWords = words(nbSquares);
+        pieces = new long[NB_TYPES * NB_COLORS * nbWords];
+        colors = new long[NB_COLORS * nbWords];
+        occupied = new long[nbWords];
+    }
+
+    /**
+     * Get the number of words holding a number of squares
+     * @param nbSquares Number of squares
+     * @return Number of words
+     */
+    static int words(int nbSquares) {
+        return (nbSquares + Long.SIZE - 1) >>> WORD_SHIFT;
+    }
+
+    /**
+     * Get the word of a square
+     * @param square Square index
+     * @return Index of the word holding the square
+     */
+    static int word(int square) {
+        return square >>> WORD_SHIFT;
+    }
+
+    /**
+     * Get the bit of a square in its word
+     * @param square Square index
+     * @return Word with only the bit of the square set
+     */
+    static long bit(int square) {
+        // Shifts of a long only use the 6 lowest bits, which is the index of the square in its word
+        return 1L << square;
+    }
+
+    /**
+     * Get the bit of a square in a given word
+     * @param square Square index, negative for no square
+     * @param word Index of the word
+     * @return Word with only the bit of the square set, empty if the square is not in the word
+     */
+    static long bit(int square, int word) {
+        return square >= 0 && word(square) == word ? bit(square) : 0L;
+    }
+
+    /**
+     * Get the number of words of each set
+     * @return Number of words
+     */
+    int words() {
+        return nbWords;
+    }
+
+    /**
+     * Put a piece on a square, replacing what was on it
+     * @param type Type of the piece
+     * @param color Color of the piece
+     * @param square Square index
+     */
+    void set(Chess.ChessPieceType type, ChessColor color, int square) {
+        Objects.requireNonNull(type, "type must be non null");
+        Objects.requireNonNull(color, "color must be non null");
+        clear(square);
+        int word = word(square);
+        long bit = bit(square);
+        pieces[index(type, color) + word] |= bit;
+        colors[color.ordinal() * nbWords + word] |= bit;
+        occupied[word] |= bit;
+    }
+
+    /**
+     * Remove any piece from a square
+     * @param square Square index
+     */
+    void clear(int square) {
+        int word = word(square);
+        long bit = bit(square);
+        if((occupied[word] & bit) == 0)
+            return;
+        long mask = ~bit;
+        for (int k = word; k < pieces.length; k += nbWords) {
+            pieces[k] &= mask;
+        }
+        for (int k = word; k < colors.length; k += nbWords) {
+            colors[k] &= mask;
+        }
+        occupied[word] &= mask;
+    }
+
+    /**
+     * Remove all pieces
+     */
+    void reset() {
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colors, 0L);
+        Arrays.fill(occupied, 0L);
+    }
+
+    /**
+     * Copy the words of another bitboard of the same size
+     * @param other Copied bitboard
+     */
+    void copyFrom(BitBoard other) {
+        Objects.requireNonNull(other, "other must be non null");
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        System.arraycopy(other.occupied, 0, occupied, 0, occupied.length);
+    }
+
+    /**
+     * Get a word of the squares occupied by a type of piece of a given color
+     * @param type Type of the pieces
+     * @param color Color of the pieces
+     * @param word Index of the word
+     * @return Occupancy word
+     */
+    long pieces(Chess.ChessPieceType type, ChessColor color, int word) {
+        return pieces[index(type, color) + word];
+    }
+
+    /**
+     * Get a word of the squares occupied by a color
+     * @param color Color of the pieces
+     * @param word Index of the word
+     * @return Occupancy word
+     */
+    long pieces(ChessColor color, int word) {
+        return colors[color.ordinal() * nbWords + word];
+    }
+
+    /**
+     * Get a word of all occupied squares
+     * @param word Index of the word
+     * @return Occupancy word
+     */
+    long occupied(int word) {
+        return occupied[word];
+    }
+
+    /**
+     * Check if a square is occupied
+     * @param square Square index
+     * @return Either the square holds a piece or not
+     */
+    boolean isOccupied(int square) {
+        return (occupied[word(square)] & bit(square)) != 0;
+    }
+
+    /**
+     * Check if a square holds a type of piece of a given color
+     * @param type Type of the piece
+     * @param color Color of the piece
+     * @param square Square index
+     * @return Either the square holds such a piece or not
+     */
+    boolean contains(Chess.ChessPieceType type, ChessColor color, int square) {
+        return (pieces[index(type, color) + word(square)] & bit(square)) != 0;
+    }
+
+    /**
+     * Check if a square holds a piece of a given color
+     * @param color Color of the piece
+     * @param square Square index
+     * @return Either the square holds a piece of the color or not
+     */
+    boolean contains(ChessColor color, int square) {
+        return (colors[color.ordinal() * nbWords + word(square)] & bit(square)) != 0;
+    }
+
+    /**
+     * Count the pieces of a type and color
+     * @param type Type of the pieces
+     * @param color Color of the pieces
+     * @return Number of pieces
+     */
+    int count(Chess.ChessPieceType type, ChessColor color) {
+        int count = 0;
+        for (int word = 0; word < nbWords; word++) {
+            count += Long.bitCount(pieces(type, color, word));
+        }
+        return count;
+    }
+
+    /**
+     * Get the first square holding a type of piece of a given color
+     * @param type Type of the pieces
+     * @param color Color of the pieces
+     * @return Lowest square index, -1 if there is no such piece
+     */
+    int first(Chess.ChessPieceType type, ChessColor color) {
+        for (int word = 0; word < nbWords; word++) {
+            long squares = pieces(type, color, word);
+            if(squares != 0)
+                return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(squares);
+        }
+        return -1;
+    }
+
+    /**
+     * Get the index of the first word of a piece set
+     * @param type Type of the pieces
+     * @param color Color of the pieces
+     * @return Index in the pieces array
+     */
+    private int index(Chess.ChessPieceType type, ChessColor color) {
+        return (type.ordinal() * NB_COLORS + color.ordinal()) * nbWords;
+    }
+}
@@ -24,7 +24,28 @@ public class CanNotEat implements GameCondition<Chess> {
     public boolean checkCondition(Vector start, Vector destination, Board<Chess> board) {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
+        Objects.requireNonNull(board, "chess board must be non null");
+        return checkCondition(board.indexOf(start), board.indexOf(destination), board);
+    }
+
+    /**
+     * Check if there is no pieces at destination by square indexes
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param board Concerned Board on which the action will be performed
+     * @return If there is no pieces at destination
+     */
+    @Override
+    public boolean checkCondition(int start, int destination, Board<Chess> board) {
         Objects.requireNonNull(board, "chess board must be non null");
         return board.getPieceAtPosition(destination) == null;
     }
+
+    /**
+     * @return Always true
+     */
+    @Override
+    public boolean isIndependent() {
+        return true;
+    }
 }
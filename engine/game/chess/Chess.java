@@ -2,12 +2,23 @@ package engine.game.chess;
 
 import engine.game.board.Board;
 import engine.game.board.Move;
+import engine.game.board.MoveList;
+import engine.game.board.MoveSpliterator;
+import engine.game.board.PackedMove;
 import engine.game.board.Piece;
+import engine.game.board.RuleTable;
 import engine.game.board.Vector;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Chessboard
@@ -30,21 +41,23 @@ public class Chess extends Board<Chess> {
         DOWN{
             /**
              * Starting at edge
+             * @param chess Concerned chess
              * @return Edge index
              */
             @Override
-            protected int startingEdge() {
-                return SIZE - 1;
+            protected int startingEdge(Chess chess) {
+                return chess.getHEIGHT() - 1;
             }
 
             /**
              * Starting at edge
+             * @param chess Concerned chess
              * @param value Value from edge
              * @return Edge without value index
              */
             @Override
-            protected int startingEdge(int value) {
-                return startingEdge() - value;
+            protected int startingEdge(Chess chess, int value) {
+                return startingEdge(chess) - value;
             }
 
             /**
@@ -67,21 +80,23 @@ public class Chess extends Board<Chess> {
         }, LEFT{
             /**
              * Starting at edge
+             * @param chess Concerned chess
              * @return Edge index
              */
             @Override
-            protected int startingEdge() {
+            protected int startingEdge(Chess chess) {
                 return 0;
             }
 
             /**
              * Starting at edge
+             * @param chess Concerned chess
              * @param value Value from edge
              * @return Edge with value index
              */
             @Override
-            protected int startingEdge(int value) {
-                return startingEdge() + value;
+            protected int startingEdge(Chess chess, int value) {
+                return startingEdge(chess) + value;
             }
 
             /**
@@ -104,21 +119,23 @@ public class Chess extends Board<Chess> {
         }, UP{
             /**
              * Starting at edge
+             * @param chess Concerned chess
              * @return Edge index
              */
             @Override
-            protected int startingEdge() {
+            protected int startingEdge(Chess chess) {
                 return 0;
             }
 
             /**
              * Starting at edge
+             * @param chess Concerned chess
              * @param value Value from edge
              * @return Edge with value index
              */
             @Override
-            protected int startingEdge(int value) {
-                return startingEdge() + value;
+            protected int startingEdge(Chess chess, int value) {
+                return startingEdge(chess) + value;
             }
 
             /**
@@ -137,21 +154,23 @@ public class Chess extends Board<Chess> {
         }, RIGHT{
             /**
              * Starting at edge
+             * @param chess Concerned chess
              * @return Edge index
              */
             @Override
-            protected int startingEdge() {
-                return SIZE - 1;
+            protected int startingEdge(Chess chess) {
+                return chess.getLENGTH() - 1;
             }
 
             /**
              * Starting at edge
+             * @param chess Concerned chess
              * @param value Value from edge
              * @return Edge without value index
              */
             @Override
-            protected int startingEdge(int value) {
-                return startingEdge() - value;
+            protected int startingEdge(Chess chess, int value) {
+                return startingEdge(chess) - value;
             }
 
             /**
@@ -175,16 +194,18 @@ public class Chess extends Board<Chess> {
 
         /**
          * Get index of the starting edge
+         * @param chess Concerned chess, the edges depending on its size
          * @return Index of the starting edge
          */
-        protected abstract int startingEdge();
+        protected abstract int startingEdge(Chess chess);
 
         /**
          * Get index of the starting edge including value
+         * @param chess Concerned chess, the edges depending on its size
          * @param value Value from edge
          * @return Edge with value index
          */
-        protected abstract int startingEdge(int value);
+        protected abstract int startingEdge(Chess chess, int value);
 
         /**
          * Get the opposite Direction
@@ -200,28 +221,118 @@ public class Chess extends Board<Chess> {
     }
 
     private static final int SIZE = 8;
+
+    // Bounds of the board size : the pieces of a side fill a row, and a square index fits in an encoded move
+    private static final int MIN_LENGTH = 8;
+    private static final int MIN_HEIGHT = 4;
+    private static final int MAX_SIZE = 32;
+
+    // Rules and moves, shared by every chess
+    private static final Promote PROMOTE = new Promote();
+    private static final Roque ROQUE = new Roque();
+    private static final EnPassant PAWN_EN_PASSANT = new EnPassant();
+    private static final EatPiece EAT_ACTION = new EatPiece();
+    private static final MoveChessPiece MOVE_CHESS_PIECE = new MoveChessPiece();
+    private static final MustEat MUST_EAT = new MustEat();
+    private static final CanNotEat CANNOT_EAT = new CanNotEat();
+    private static final OnlyFirstMove ONLY_FIRST_MOVE = new OnlyFirstMove();
+    private static final MustNotCollide NO_COLLISION = new MustNotCollide();
+
+    private static final Move<Chess> KING_HORIZONTAL_STRAIGHTS = new Move<>(new Vector(1, 0), true, true, List.of(NO_COLLISION), List.of(EAT_ACTION));
+    private static final Move<Chess> KING_VERTICAL_STRAIGHTS = new Move<>(new Vector(0, 1), true, false, List.of(NO_COLLISION), List.of(EAT_ACTION));
+    private static final Move<Chess> KING_DIAGONALS = new Move<>(new Vector(1, 1), true, true, List.of(NO_COLLISION), List.of(EAT_ACTION));
+    private static final Move<Chess> KING_GRAND_ROQUE = new Move<>(new Vector(-4, 0), false, false, List.of(ONLY_FIRST_MOVE, NO_COLLISION, ROQUE), List.of(ROQUE));
+    private static final Move<Chess> KING_PETIT_ROQUE = new Move<>(new Vector(3, 0), false, false, List.of(ONLY_FIRST_MOVE,  NO_COLLISION, ROQUE), List.of(ROQUE));
+
+    private static final Move<Chess> PAWN_STRAIGHT_1_UP = new Move<>(new Vector(0, 1), false, false, List.of(NO_COLLISION, CANNOT_EAT), List.of(MOVE_CHESS_PIECE, PROMOTE));
+    private static final Move<Chess> PAWN_EAT_1_UP = new Move<>(new Vector(1, 1), false, true, List.of(NO_COLLISION, MUST_EAT), List.of(EAT_ACTION, PROMOTE));
+    private static final Move<Chess> PAWN_STRAIGHT_2_UP = new Move<>(new Vector(0,2), false, false, List.of(NO_COLLISION, CANNOT_EAT, ONLY_FIRST_MOVE), List.of(MOVE_CHESS_PIECE));
+    private static final Move<Chess> PAWN_EN_PASSANT_UP = new Move<>(new Vector(1, 1), false, true, List.of(NO_COLLISION, PAWN_EN_PASSANT), List.of(PAWN_EN_PASSANT, MOVE_CHESS_PIECE));
+
+    private static final Move<Chess> PAWN_STRAIGHT_1_DOWN = new Move<>(new Vector(0, -1), false, false, List.of(NO_COLLISION, CANNOT_EAT), List.of(MOVE_CHESS_PIECE, PROMOTE));
+    private static final Move<Chess> PAWN_EAT_1_DOWN = new Move<>(new Vector(-1, -1), false, true, List.of(NO_COLLISION, MUST_EAT), List.of(EAT_ACTION, PROMOTE));
+    private static final Move<Chess> PAWN_STRAIGHT_2_DOWN = new Move<>(new Vector(0,-2), false, false, List.of(NO_COLLISION, CANNOT_EAT, ONLY_FIRST_MOVE), List.of(MOVE_CHESS_PIECE));
+    private static final Move<Chess> PAWN_EN_PASSANT_DOWN = new Move<>(new Vector(-1, -1), false, true, List.of(NO_COLLISION, PAWN_EN_PASSANT), List.of(PAWN_EN_PASSANT, MOVE_CHESS_PIECE));
+
+    private static final Move<Chess> KNIGHT_L = new Move<>(new Vector(2, 1), true, true, null, List.of(EAT_ACTION));
+    private static final Move<Chess> KNIGHT_L2 = new Move<>(new Vector(1, 2), true, true, null, List.of(EAT_ACTION));
+
+    private static final Move<Chess> HORIZONTAL_STRAIGHTS = new Move<>(new Vector(MAX_SIZE, 0), false, true, List.of(NO_COLLISION), List.of(EAT_ACTION));
+    private static final Move<Chess> VERTICAL_STRAIGHTS = new Move<>(new Vector(0, MAX_SIZE), true, false, List.of(NO_COLLISION), List.of(EAT_ACTION));
+    private static final Move<Chess> DIAGONALS = new Move<>(new Vector(MAX_SIZE, MAX_SIZE), true, true, List.of(NO_COLLISION), List.of(EAT_ACTION));
+
+    // Moves of each piece
+    private static final List<Move<Chess>> BISHOP_MOVES = List.of(DIAGONALS);
+    private static final List<Move<Chess>> ROOK_MOVES = List.of(VERTICAL_STRAIGHTS, HORIZONTAL_STRAIGHTS);
+    private static final List<Move<Chess>> QUEEN_MOVES = List.of(VERTICAL_STRAIGHTS, HORIZONTAL_STRAIGHTS, DIAGONALS);
+    private static final List<Move<Chess>> KING_MOVES = List.of(KING_VERTICAL_STRAIGHTS, KING_HORIZONTAL_STRAIGHTS, KING_DIAGONALS,
+            KING_GRAND_ROQUE, KING_PETIT_ROQUE);
+    private static final List<Move<Chess>> KNIGHT_MOVES = List.of(KNIGHT_L, KNIGHT_L2);
+    private static final List<Move<Chess>> PAWN_UP_MOVES = List.of(PAWN_STRAIGHT_1_UP, PAWN_STRAIGHT_2_UP, PAWN_EAT_1_UP, PAWN_EN_PASSANT_UP);
+    private static final List<Move<Chess>> PAWN_DOWN_MOVES = List.of(PAWN_STRAIGHT_1_DOWN, PAWN_STRAIGHT_2_DOWN, PAWN_EAT_1_DOWN, PAWN_EN_PASSANT_DOWN);
+
+    // Fixed order, for the encoded moves to be the same on every chess
+    private static final RuleTable<Chess> RULES = RuleTable.of(List.of(
+            KING_HORIZONTAL_STRAIGHTS, KING_VERTICAL_STRAIGHTS, KING_DIAGONALS, KING_GRAND_ROQUE, KING_PETIT_ROQUE,
+            PAWN_STRAIGHT_1_UP, PAWN_STRAIGHT_2_UP, PAWN_EAT_1_UP, PAWN_EN_PASSANT_UP,
+            PAWN_STRAIGHT_1_DOWN, PAWN_STRAIGHT_2_DOWN, PAWN_EAT_1_DOWN, PAWN_EN_PASSANT_DOWN,
+            KNIGHT_L, KNIGHT_L2, HORIZONTAL_STRAIGHTS, VERTICAL_STRAIGHTS, DIAGONALS));
     private final ChessColor FIRST_COLOR = ChessColor.WHITE;
+    private static final ChessPieceType[] PROMOTIONS = {
+            ChessPieceType.QUEEN, ChessPieceType.ROOK, ChessPieceType.BISHOP, ChessPieceType.KNIGHT
+    };
 
     private boolean isStarted;
     private ChessColor turn;
 
-    Move<Chess> getPawnStraight2Up() {
-        return pawnStraight2Up;
-    }
-    Move<Chess> getPawnStraight2Down() {
-        return pawnStraight2Down;
-    }
+    // Status of the color to play, evaluated once at the end of each turn
+    private GameStatus status;
+
+    // Tables of the board size, shared by every chess of that size
+    private final Attacks attacks;
+    private final Zobrist zobrist;
+
+    private final BitBoard bitBoard;
+    private final LegalMoveFilter legalMoveFilter;
+
+    // Squares attacked by each color, null unless enabled
+    private AttackMap attackMap;
+
+    // Possible moves of the pieces of the last positions, null unless enabled
+    private MoveCache moveCache;
+    private static final int MOVE_CACHE_TYPE_SHIFT = 40;
+    private static final int MOVE_CACHE_COLOR_SHIFT = 48;
+    private static final int MOVE_CACHE_TURN_SHIFT = 56;
+
+    // Listeners of the committed events of the game
+    private final EventDispatcher events;
+    private long positionVersion;
+
+    // Hash of the pieces on their squares, updated when a square is modified
+    private long piecesKey;
+
+    // Squares of the pieces of each color and of each King, updated when a square is modified
+    private final PieceList[] pieceLists;
+    private final int[] kingSquares;
+
+    // Piece of each type and color, shared by the squares
+    private final ChessPiece[] sharedPieces;
+
+    // Piece chosen by the encoded move being played, null if the move does not choose
+    private ChessPieceType requestedPromotion;
 
-    // Rules...
-    private Promote promote;
-    private Roque roque;
-    private EnPassant pawnEnPassant;
-    private EatPiece eatAction;
-    private MoveChessPiece moveChessPiece;
-    private MustEat mustEat;
-    private CanNotEat cannotEat;
-    private OnlyFirstMove onlyFirstMove;
-    private MustNotCollide noCollision;
+    // Irreversible state : castling rights, en passant target square and halfmove clock
+    private static final int NO_SQUARE = -1;
+    private static final int EN_PASSANT_SHIFT = 8;
+    private static final int HALFMOVE_SHIFT = 24;
+    private static final long CASTLING_MASK = (1L << EN_PASSANT_SHIFT) - 1;
+    private static final long EN_PASSANT_MASK = (1L << (HALFMOVE_SHIFT - EN_PASSANT_SHIFT)) - 1;
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock;
+
+    // Castling rights lost when a move starts or ends on a square
+    private final int[] castlingMasks;
 
     /**
      * Get turn color
@@ -232,37 +343,89 @@ public class Chess extends Board<Chess> {
     }
 
 
-    // Moves...
-    private Move<Chess> kingHorizontalStraights;
-    private Move<Chess> kingVerticalStraights;
-    private Move<Chess> kingDiagonals;
-    private Move<Chess> kingGrandRoque;
-    private Move<Chess> kingPetitRoque;
+    /**
+     * Chess constructor
+     */
+    public Chess(){
+        this(SIZE, SIZE);
+    }
 
-    private Move<Chess> pawnStraight1Up;
-    private Move<Chess> pawnStraight2Up;
-    private Move<Chess> pawnEat1Up;
-    private Move<Chess> pawnEnPassantUp;
-    private Move<Chess> pawnStraight1Down;
-    private Move<Chess> pawnStraight2Down;
-    private Move<Chess> pawnEat1Down;
-    private Move<Chess> pawnEnPassantDown;
+    /**
+     * Chess constructor for a board of any size
+     * The pieces of a side are set from the left edge as on a standard board, the Rooks, Knights and Bishops being
+     * mirrored from the right edge, and the Pawns fill the whole row in front of them
+     * @param length Length of the board
+     * @param height Height of the board
+     */
+    public Chess(int length, int height){
+        super(checkSize(length, MIN_LENGTH), checkSize(height, MIN_HEIGHT), RULES);
+        attacks = Attacks.of(length, height);
+        zobrist = Zobrist.of(length * height);
+        bitBoard = new BitBoard(getLENGTH() * getHEIGHT());
+        legalMoveFilter = new LegalMoveFilter(this);
+        events = new EventDispatcher();
+        pieceLists = new PieceList[ChessColor.values().length];
+        kingSquares = new int[ChessColor.values().length];
+        for (ChessColor color : ChessColor.values()) {
+            pieceLists[color.ordinal()] = new PieceList(getLENGTH() * getHEIGHT());
+            kingSquares[color.ordinal()] = NO_SQUARE;
+        }
+        castlingMasks = new int[getLENGTH() * getHEIGHT()];
+        sharedPieces = new ChessPiece[ChessPieceType.values().length * ChessColor.values().length];
+        enPassantSquare = NO_SQUARE;
+        isStarted = false;
+        status = GameStatus.ONGOING;
+    }
 
-    private Move<Chess> knightL;
-    private Move<Chess> knightL2;
+    /**
+     * Check a dimension of the board
+     * @param size Length or height of the board
+     * @param min Smallest supported size
+     * @return The size
+     */
+    private static int checkSize(int size, int min) {
+        if(size < min || size > MAX_SIZE)
+            throw new IllegalArgumentException("Size must be between " + min + " and " + MAX_SIZE);
+        return size;
+    }
 
-    private Move<Chess> horizontalStraights;
-    private Move<Chess> verticalStraights;
-    private Move<Chess> diagonals;
+    /**
+     * Chess copy constructor
+     * The copy is independent and not displayed : its pieces are new pieces of the same types and colors, and the
+     * bitboards, piece lists and irreversible state are copied as arrays instead of being rebuilt square by square
+     * The moves played before the copy are not copied, so they can not be reverted on the copy, and neither are the
+     * listeners
+     * @param other Copied chess
+     */
+    protected Chess(Chess other){
+        this(Objects.requireNonNull(other, "other must be non null").getLENGTH(), other.getHEIGHT());
+        for (PieceList pieces : other.pieceLists) {
+            for (int k = 0; k < pieces.size(); k++) {
+                ChessPiece piece = other.getPieceAtPosition(pieces.get(k));
+                super.setPieceAtPosition(getPiece(piece.getPieceType(), piece.getColor()), pieces.get(k));
+            }
+        }
+        bitBoard.copyFrom(other.bitBoard);
+        for (ChessColor color : ChessColor.values()) {
+            pieceLists[color.ordinal()].copyFrom(other.pieceLists[color.ordinal()]);
+            kingSquares[color.ordinal()] = other.kingSquares[color.ordinal()];
+        }
+        piecesKey = other.piecesKey;
+        System.arraycopy(other.castlingMasks, 0, castlingMasks, 0, castlingMasks.length);
+        restoreIrreversibleState(other.getIrreversibleState());
+        turn = other.turn;
+        status = other.status;
+        isStarted = other.isStarted;
+        setAttackMapEnabled(other.isAttackMapEnabled());
+        setMoveCacheCapacity(other.getMoveCacheCapacity());
+    }
 
     /**
-     * Chess constructor
+     * Copy the position, to analyse it without modifying this chess, for example in another thread
+     * @return Independent copy of the position
      */
-    public Chess(){
-        super(SIZE, SIZE);
-        isStarted = false;
-        initRules();
-        initMoves();
+    public Chess copy(){
+        return new Chess(this);
     }
 
     /**
@@ -273,50 +436,148 @@ public class Chess extends Board<Chess> {
         turn = FIRST_COLOR;
         isStarted = true;
         super.startGame();
+        initIrreversibleState();
+        status = evaluateStatus(turn);
+        if(events.hasListeners())
+            events.publish(ChessEvent.gameStarted(turn));
     }
 
     /**
-     * Init legit moves in chess
+     * Init the irreversible state from the pieces of a new game
+     * A color can roque on a side if its King and a Rook of the corner of its row are on the board
      */
-    protected void initMoves() {
-        horizontalStraights = new Move<>(new Vector(super.getLENGTH(), 0), false, true, List.of(noCollision), List.of(eatAction));
-        verticalStraights = new Move<>(new Vector(0, super.getHEIGHT()), true, false, List.of(noCollision), List.of(eatAction));
-        diagonals = new Move<>(new Vector(super.getLENGTH(), super.getHEIGHT()), true, true, List.of(noCollision), List.of(eatAction));
+    private void initIrreversibleState() {
+        castlingRights = 0;
+        enPassantSquare = NO_SQUARE;
+        halfmoveClock = 0;
+        Arrays.fill(castlingMasks, 0);
+        for (ChessColor color : ChessColor.values()) {
+            if(bitBoard.count(ChessPieceType.KING, color) != 1)
+                continue;
+            int king = bitBoard.first(ChessPieceType.KING, color);
+            int row = getPosition(king).getJ();
+            for (boolean isPetitRoque : new boolean[]{false, true}) {
+                int rook = getPosition(isPetitRoque ? getLENGTH() - 1 : 0, row).getIndex();
+                if(bitBoard.contains(ChessPieceType.ROOK, color, rook)) {
+                    int right = castlingRight(color, isPetitRoque);
+                    castlingRights |= right;
+                    castlingMasks[king] |= right;
+                    castlingMasks[rook] |= right;
+                }
+            }
+        }
+    }
 
-        kingGrandRoque = new Move<>(new Vector(-4, 0), false, false, List.of(onlyFirstMove, noCollision, roque), List.of(roque));
-        kingPetitRoque = new Move<>(new Vector(3, 0), false, false, List.of(onlyFirstMove,  noCollision, roque), List.of(roque));
-        kingHorizontalStraights = new Move<>(new Vector(1, 0), true, true, List.of(noCollision), List.of(eatAction));
-        kingVerticalStraights = new Move<>(new Vector(0, 1), true, false, List.of(noCollision), List.of(eatAction));
-        kingDiagonals = new Move<>(new Vector(1, 1), true, true, List.of(noCollision), List.of(eatAction));
+    /**
+     * Get the irreversible state of the position
+     * @return Castling rights, en passant target square and halfmove clock packed together
+     */
+    @Override
+    protected long getIrreversibleState() {
+        return castlingRights
+                | (long) (enPassantSquare - NO_SQUARE) << EN_PASSANT_SHIFT
+                | (long) halfmoveClock << HALFMOVE_SHIFT;
+    }
 
-        pawnStraight1Up = new Move<>(new Vector(0, 1), false, false, List.of(noCollision, cannotEat), List.of(moveChessPiece, promote));
-        pawnEat1Up = new Move<>(new Vector(1, 1), false, true, List.of(noCollision, mustEat), List.of(eatAction, promote));
-        pawnStraight2Up = new Move<>(new Vector(0,2), false, false, List.of(noCollision, cannotEat, onlyFirstMove), List.of(moveChessPiece));
-        pawnEnPassantUp = new Move<>(new Vector(1, 1), false, true, List.of(noCollision, pawnEnPassant), List.of(pawnEnPassant, moveChessPiece));
+    /**
+     * Restore the irreversible state of the position
+     * @param state Castling rights, en passant target square and halfmove clock packed together
+     */
+    @Override
+    protected void restoreIrreversibleState(long state) {
+        castlingRights = (int) (state & CASTLING_MASK);
+        enPassantSquare = (int) (state >>> EN_PASSANT_SHIFT & EN_PASSANT_MASK) + NO_SQUARE;
+        halfmoveClock = (int) (state >>> HALFMOVE_SHIFT);
+    }
 
-        pawnStraight1Down = new Move<>(new Vector(0, -1), false, false, List.of(noCollision, cannotEat), List.of(moveChessPiece, promote));
-        pawnEat1Down = new Move<>(new Vector(-1, -1), false, true, List.of(noCollision, mustEat), List.of(eatAction, promote));
-        pawnStraight2Down = new Move<>(new Vector(0,-2), false, false, List.of(noCollision, cannotEat, onlyFirstMove), List.of(moveChessPiece));
-        pawnEnPassantDown = new Move<>(new Vector(-1, -1), false, true, List.of(noCollision, pawnEnPassant), List.of(pawnEnPassant, moveChessPiece));
+    /**
+     * Update the irreversible state after a move
+     * @param piece Moved piece
+     * @param move Move made by the piece
+     * @param start Index of the square from where the piece moved
+     * @param destination Index of the square to where the piece moved
+     */
+    @Override
+    protected void updateIrreversibleState(Piece<Chess> piece, Move<Chess> move, int start, int destination) {
+        castlingRights &= ~(castlingMasks[start] | castlingMasks[destination]);
+        // The target square is the one the Pawn passed over, the rule of the double step also reaching the next square
+        boolean isDoubleStep = (move == PAWN_STRAIGHT_2_UP || move == PAWN_STRAIGHT_2_DOWN)
+                && Math.abs(getPosition(destination).getJ() - getPosition(start).getJ()) == 2;
+        enPassantSquare = isDoubleStep ? (start + destination) / 2 : NO_SQUARE;
+        boolean isCapture = historicMoves.countLastAffectedPieces() > 0;
+        halfmoveClock = isCapture || piece instanceof Pawn ? 0 : halfmoveClock + 1;
+    }
+
+    /**
+     * Check if a color can still roque on a side
+     * @param color Color of the King
+     * @param isPetitRoque Side towards the last column if true, towards the first column otherwise
+     * @return Either the King and the Rook of the side have not moved or not
+     */
+    public boolean hasCastlingRight(ChessColor color, boolean isPetitRoque) {
+        return (castlingRights & castlingRight(Objects.requireNonNull(color, "color must be non null"), isPetitRoque)) != 0;
+    }
 
-        knightL = new Move<>(new Vector(2, 1), true, true, null, List.of(eatAction));
-        knightL2 = new Move<>(new Vector(1, 2), true, true, null, List.of(eatAction));
+    /**
+     * Get the en passant target square, the one the last Pawn moving two squares passed over
+     * @return Index of the square, -1 if the last move allows no en passant
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
     }
 
     /**
-     * Init all chess rules
+     * Get the number of moves since the last capture or Pawn move
+     * @return Halfmove clock
      */
-    protected void initRules(){
-        promote = new Promote();
-        roque = new Roque();
-        pawnEnPassant = new EnPassant();
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
 
-        eatAction = new EatPiece();
-        moveChessPiece = new MoveChessPiece();
-        mustEat = new MustEat();
-        cannotEat = new CanNotEat();
-        onlyFirstMove = new OnlyFirstMove();
-        noCollision = new MustNotCollide();
+    /**
+     * Get the hash key of the position, equal for positions with the same pieces on the same squares,
+     * the same color to play, the same castling rights and the same en passant target square
+     * The key of the pieces is updated with each modified square, and like the irreversible state it is
+     * restored when a move is reverted
+     * @return Hash key of the position
+     */
+    public long getPositionKey() {
+        return piecesKey
+                ^ zobrist.castling(castlingRights)
+                ^ zobrist.enPassant(enPassantSquare)
+                ^ (turn == null ? 0 : zobrist.side(turn));
+    }
+
+    /**
+     * Check if a piece has not moved since the start of the game
+     * Pawns are on their starting row, Kings and Rooks still have a castling right, and the other pieces have not moved
+     * if no move started from or ended on their square, pieces being shared by the squares
+     * @param piece Piece to be checked
+     * @param square Index of the square of the piece
+     * @return Either the piece has not moved or not
+     */
+    boolean isOnFirstMove(ChessPiece piece, int square) {
+        Objects.requireNonNull(piece, "piece must be non null");
+        switch (piece.getPieceType()) {
+            case PAWN:
+                return getPosition(square).getJ() == piece.getColor().getDirection().startingEdge(this, Pawn.STARTING_ROW_FROM_EDGE);
+            case KING:
+            case ROOK:
+                return (castlingRights & castlingMasks[square]
+                        & (castlingRight(piece.getColor(), false) | castlingRight(piece.getColor(), true))) != 0;
+            default:
+                return !hasMoved(square);
+        }
+    }
+
+    /**
+     * Get the bit of a castling right
+     * @param color Color of the King
+     * @param isPetitRoque Side towards the last column if true, towards the first column otherwise
+     * @return Bit of the castling right
+     */
+    private static int castlingRight(ChessColor color, boolean isPetitRoque) {
+        return 1 << (color.ordinal() * 2 + (isPetitRoque ? 1 : 0));
     }
 
     /**
@@ -328,24 +589,24 @@ public class Chess extends Board<Chess> {
         for (ChessColor color: ChessColor.values()) {
             // Pawns
             for (int i = 0; i < getLENGTH(); i++) {
-                setPieceAtPosition(new Pawn(color, this), color.getDirection().adjacent()[0].startingEdge(i),
-                        color.getDirection().startingEdge(Pawn.STARTING_ROW_FROM_EDGE));
+                setPieceAtPosition(getPiece(ChessPieceType.PAWN, color), color.getDirection().adjacent()[0].startingEdge(this, i),
+                        color.getDirection().startingEdge(this, Pawn.STARTING_ROW_FROM_EDGE));
             }
-            setPieceAtPosition(new Queen(color, this), color.getDirection().adjacent()[0].startingEdge(Queen.STARTING_COLUMN_FROM_EDGE),
-                    color.getDirection().startingEdge(Queen.STARTING_ROW_FROM_EDGE));
-            setPieceAtPosition(new King(color, this), color.getDirection().adjacent()[0].startingEdge(King.STARTING_COLUMN_FROM_EDGE),
-                    color.getDirection().startingEdge(King.STARTING_ROW_FROM_EDGE));
+            setPieceAtPosition(getPiece(ChessPieceType.QUEEN, color), color.getDirection().adjacent()[0].startingEdge(this, Queen.STARTING_COLUMN_FROM_EDGE),
+                    color.getDirection().startingEdge(this, Queen.STARTING_ROW_FROM_EDGE));
+            setPieceAtPosition(getPiece(ChessPieceType.KING, color), color.getDirection().adjacent()[0].startingEdge(this, King.STARTING_COLUMN_FROM_EDGE),
+                    color.getDirection().startingEdge(this, King.STARTING_ROW_FROM_EDGE));
 
             // for symetric pairs
             for (Direction d: color.getDirection().adjacent()) {
-                setPieceAtPosition(new Rook(color, this), d.startingEdge(Rook.STARTING_COLUMN_FROM_EDGE),
-                        color.getDirection().startingEdge(Rook.STARTING_ROW_FROM_EDGE));
+                setPieceAtPosition(getPiece(ChessPieceType.ROOK, color), d.startingEdge(this, Rook.STARTING_COLUMN_FROM_EDGE),
+                        color.getDirection().startingEdge(this, Rook.STARTING_ROW_FROM_EDGE));
 
-                setPieceAtPosition(new Knight(color, this), d.startingEdge(Knight.STARTING_COLUMN_FROM_EDGE),
-                        color.getDirection().startingEdge(Knight.STARTING_ROW_FROM_EDGE));
+                setPieceAtPosition(getPiece(ChessPieceType.KNIGHT, color), d.startingEdge(this, Knight.STARTING_COLUMN_FROM_EDGE),
+                        color.getDirection().startingEdge(this, Knight.STARTING_ROW_FROM_EDGE));
 
-                setPieceAtPosition(new Bishop(color, this), d.startingEdge(Bishop.STARTING_COLUMN_FROM_EDGE),
-                        color.getDirection().startingEdge(Bishop.STARTING_ROW_FROM_EDGE));
+                setPieceAtPosition(getPiece(ChessPieceType.BISHOP, color), d.startingEdge(this, Bishop.STARTING_COLUMN_FROM_EDGE),
+                        color.getDirection().startingEdge(this, Bishop.STARTING_ROW_FROM_EDGE));
             }
 
         }
@@ -353,33 +614,232 @@ public class Chess extends Board<Chess> {
 
     /**
      * Move a piece
-     * @param from Vector from which the request move is made
-     * @param to Vector to which the request move is made
+     * @param from Index of the square from which the request move is made
+     * @param to Index of the square to which the request move is made
      * @return Either the move is made or not
      */
-    public boolean move(Vector from, Vector to){
-        Objects.requireNonNull(from, "from vector must be non null");
-        Objects.requireNonNull(to, "to vector must be non null");
+    @Override
+    public boolean move(int from, int to){
         if(!isStarted)
             return false;
 
-        boolean status = false;
         ChessPiece movedPiece = getPieceAtPosition(from);
-        if(movedPiece != null
-                && movedPiece.getColor() == turn
-                && super.move(from, to)){
+        if(movedPiece == null || movedPiece.getColor() != turn)
+            return false;
+
+        ChessPieceType captured = events.hasListeners() ? capturedType(movedPiece, to) : null;
+        if(!(moveCache == null ? super.move(from, to) : moveFromCache(movedPiece, from, to)))
+            return false;
+
+        completeTurn(movedPiece, from, to, captured);
+        return true;
+    }
 
-            turn = turn.next();
-            if(checkmate(turn)) {
-                endGame(turn.next());
+    /**
+     * Move a piece, promoting it to a chosen type if the move is a promotion
+     * The choice is carried by the request, so the move is checked and played without asking anything
+     * @param from Index of the square from which the request move is made
+     * @param to Index of the square to which the request move is made
+     * @param promotion Type the Pawn is promoted to, null for the default Queen, ignored if the move is no promotion
+     * @return Either the move is made or not, a type no Pawn can be promoted to refusing the move
+     */
+    public boolean move(int from, int to, ChessPieceType promotion){
+        if(promotion != null && !Arrays.asList(PROMOTIONS).contains(promotion))
+            return false;
+        requestedPromotion = promotion;
+        try {
+            return move(from, to);
+        } finally {
+            requestedPromotion = null;
+        }
+    }
+
+    /**
+     * Check if a move can be played and promotes a Pawn, so that the promoted type can be chosen before moving
+     * @param from Index of the square from which the request move is made
+     * @param to Index of the square to which the request move is made
+     * @return Either the move is possible and is a promotion or not
+     */
+    public boolean isPromotion(int from, int to){
+        ChessPiece piece = getPieceAtPosition(from);
+        if(!isStarted || piece == null || piece.getColor() != turn || piece.getPieceType() != ChessPieceType.PAWN
+                || getPosition(to).getJ() != turn.getPromotionRow(this))
+            return false;
+        MoveList moves = new MoveList();
+        piece.possibleMoves(from, moves);
+        for (int k = 0; k < moves.size(); k++) {
+            if(PackedMove.getTo(moves.get(k)) == to)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Move a piece with the first of its cached moves reaching the destination, which is the rule Board.move
+     * would find by checking the rules of the piece one after the other
+     * @param piece Moved piece
+     * @param from Index of the square from which the request move is made
+     * @param to Index of the square to which the request move is made
+     * @return Either the move is made or not
+     */
+    private boolean moveFromCache(ChessPiece piece, int from, int to){
+        for (int move : piece.cachedMoves(from)) {
+            if(PackedMove.getTo(move) == to) {
+                piece.doMove(from, to, getRule(PackedMove.getRule(move)));
+                return true;
             }
-            status = true;
+        }
+        return false;
+    }
+
+    /**
+     * Play a move encoded by PackedMove, promoting to the piece it chooses if any
+     * @param move Encoded move
+     * @return Either the move is made or not
+     */
+    @Override
+    public boolean playMove(int move){
+        if(!isStarted)
+            return false;
+
+        int from = PackedMove.getFrom(move);
+        int to = PackedMove.getTo(move);
+        ChessPiece movedPiece = getPieceAtPosition(from);
+        if(movedPiece == null || movedPiece.getColor() != turn)
+            return false;
+
+        ChessPieceType captured = events.hasListeners() ? capturedType(movedPiece, to) : null;
+        requestedPromotion = getPromotionType(PackedMove.getPromotion(move));
+        try {
+            if(!super.playMove(move))
+                return false;
+        } finally {
+            requestedPromotion = null;
+        }
+        completeTurn(movedPiece, from, to, captured);
+        return true;
+    }
+
+    /**
+     * Get the type of the piece a move would capture, before it is played
+     * A Pawn reaching the en passant square takes the Pawn that passed over it
+     * @param piece Moved piece
+     * @param to Index of the destination square
+     * @return Type of the captured piece, null if none
+     */
+    private ChessPieceType capturedType(ChessPiece piece, int to) {
+        ChessPiece target = getPieceAtPosition(to);
+        if(target != null)
+            return target.getPieceType();
+        if(piece.getPieceType() == ChessPieceType.PAWN && to == enPassantSquare)
+            return ChessPieceType.PAWN;
+        return null;
+    }
+
+    /**
+     * End the turn of a played move, its events being dispatched once the turn is over so that the listeners see the
+     * state of the next turn
+     * @param piece Moved piece
+     * @param from Index of the start square
+     * @param to Index of the destination square
+     * @param captured Type of the captured piece, null if none
+     */
+    private void completeTurn(ChessPiece piece, int from, int to, ChessPieceType captured) {
+        events.hold();
+        try {
+            publishMove(piece, from, to, captured);
+            endTurn();
+        } finally {
+            events.release();
+        }
+    }
+
+    /**
+     * Publish a played move to the listeners, the piece on the destination telling the promotion if any
+     * @param piece Moved piece
+     * @param from Index of the start square
+     * @param to Index of the destination square
+     * @param captured Type of the captured piece, null if none
+     */
+    private void publishMove(ChessPiece piece, int from, int to, ChessPieceType captured) {
+        if(!events.hasListeners())
+            return;
+        ChessPieceType arrived = getPieceAtPosition(to).getPieceType();
+        events.publish(ChessEvent.movePlayed(piece.getColor(), from, to, piece.getPieceType(), captured,
+                arrived != piece.getPieceType() ? arrived : null));
+    }
+
+    /**
+     * Add a listener receiving each committed event as soon as it happens, in the thread playing on the chess
+     * @param listener Added listener
+     */
+    public void addListener(ChessListener listener) {
+        addListener(listener, EventDispatcher.DIRECT, 1);
+    }
+
+    /**
+     * Add a listener receiving the committed events by batches, delivered by an executor
+     * A batch is delivered once it holds batchSize events, when the game is over or when the events are flushed, so
+     * that a slow listener given an asynchronous executor never slows the moves down
+     * @param listener Added listener
+     * @param executor Executor of the deliveries, may deliver in another thread as the events are immutable
+     * @param batchSize Number of events delivered at once
+     */
+    public void addListener(ChessListener listener, Executor executor, int batchSize) {
+        events.add(listener, executor, batchSize);
+    }
+
+    /**
+     * Remove a listener, its pending events being delivered first
+     * @param listener Removed listener
+     * @return Either the listener was added or not
+     */
+    public boolean removeListener(ChessListener listener) {
+        return events.remove(listener);
+    }
 
+    /**
+     * Deliver the pending events of every listener without waiting for their batches to be full
+     */
+    public void flushEvents() {
+        events.flush();
+    }
+
+    /**
+     * Give the turn to the next color and evaluate its status, ending the game on checkmate or stalemate
+     */
+    protected void endTurn(){
+        turn = turn.next();
+        status = evaluateStatus(turn);
+        if(status == GameStatus.CHECK && events.hasListeners())
+            events.publish(ChessEvent.check(turn));
+        if(status == GameStatus.CHECKMATE) {
+            endGame(turn.next());
+        } else if(status == GameStatus.STALEMATE) {
+            endGameInDraw();
         }
+    }
 
+    /**
+     * Get the status of the color to play, evaluated at the end of the last turn
+     * @return Status of the game
+     */
+    public GameStatus getStatus() {
         return status;
     }
 
+    /**
+     * Evaluate the status of a color, the check being computed once and the search stopping at the first legal move
+     * @param color Color to play
+     * @return Status of the color
+     */
+    private GameStatus evaluateStatus(ChessColor color){
+        boolean isCheck = check(color);
+        if(hasLegalMove(color))
+            return isCheck ? GameStatus.CHECK : GameStatus.ONGOING;
+        return isCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+    }
+
     /**
      * End the current game
      * @param winner Winner color
@@ -387,6 +847,17 @@ public class Chess extends Board<Chess> {
     protected void endGame(ChessColor winner){
         Objects.requireNonNull(winner, "winner must be non null");
         isStarted = false;
+        if(events.hasListeners())
+            events.publish(ChessEvent.gameOver(winner));
+    }
+
+    /**
+     * End the current game without winner
+     */
+    protected void endGameInDraw(){
+        isStarted = false;
+        if(events.hasListeners())
+            events.publish(ChessEvent.gameOver(null));
     }
 
     /**
@@ -405,12 +876,8 @@ public class Chess extends Board<Chess> {
      */
     public boolean check(ChessColor defendingColor){
         Objects.requireNonNull(defendingColor, "defending color must be non null");
-        // Search for the King
-        for (Vector positionKing : searchPieces(new King(defendingColor, this))) {
-            if(isAttacked(defendingColor, positionKing))
-                return true;
-        }
-        return false;
+        int king = kingSquares[defendingColor.ordinal()];
+        return king != NO_SQUARE && isAttacked(defendingColor, king);
     }
 
     /**
@@ -420,19 +887,97 @@ public class Chess extends Board<Chess> {
      */
     public boolean checkmate(ChessColor defendingColor){
         Objects.requireNonNull(defendingColor, "defending color must be non null");
-        if(!check(defendingColor)){
-            return false;
-        }
-        // Search for the King
-        for (Vector positionKing : searchPieces(new King(defendingColor, this))) {
-            // for each pieces that player controls
-            for (Vector positionPiece : searchPieces(defendingColor)) {
-                if(getPieceAtPosition(positionPiece).possibleMoves(positionPiece).size() > 0){
-                    return false;
-                }
+        return check(defendingColor) && !hasLegalMove(defendingColor);
+    }
+
+    /**
+     * Check if a color has at least one legal move, stopping at the first one found
+     * @param color Color of the moving pieces
+     * @return Either the color can move or not
+     */
+    public boolean hasLegalMove(ChessColor color){
+        Objects.requireNonNull(color, "color must be non null");
+        PieceList pieces = pieceLists[color.ordinal()];
+        for (int k = 0; k < pieces.size(); k++) {
+            int square = pieces.get(k);
+            // The move cache is left to the queries listing the moves, it would list them in full
+            if(getPieceAtPosition(square).hasPossibleMove(square)){
+                return true;
             }
         }
-        return true;
+        return false;
+    }
+
+    /**
+     * Add all legal moves of a color to a list of encoded moves
+     * @param color Color of the moving pieces
+     * @param moves List to which the moves are added
+     * @return Number of added moves
+     */
+    public int generateMoves(ChessColor color, MoveList moves){
+        Objects.requireNonNull(color, "color must be non null");
+        Objects.requireNonNull(moves, "moves must be non null");
+        int first = moves.size();
+        PieceList pieces = pieceLists[color.ordinal()];
+        for (int k = 0; k < pieces.size(); k++) {
+            int square = pieces.get(k);
+            getPieceAtPosition(square).possibleMoves(square, moves);
+        }
+        return moves.size() - first;
+    }
+
+    /**
+     * Iterate lazily over the legal moves of a color, a piece being only looked at when its first move is requested
+     * The board must not be modified while iterating
+     * @param color Color of the moving pieces
+     * @return Iterator over the encoded moves
+     */
+    public PrimitiveIterator.OfInt legalMoves(ChessColor color){
+        return Spliterators.iterator(legalMoveSpliterator(color));
+    }
+
+    /**
+     * Get a lazy source of the legal moves of a color, that can be split to consume the moves in parallel
+     * Checking the moves only reads the position, so they can be consumed by many threads at once
+     * The board must not be modified while the moves are consumed
+     * @param color Color of the moving pieces
+     * @return Source of the encoded moves
+     */
+    public Spliterator.OfInt legalMoveSpliterator(ChessColor color){
+        Objects.requireNonNull(color, "color must be non null");
+        return new MoveSpliterator<>(this, pieceLists[color.ordinal()].toArray());
+    }
+
+    /**
+     * Stream the legal moves of a color, the stream can be made parallel
+     * The board must not be modified while the stream is consumed
+     * @param color Color of the moving pieces
+     * @return Stream of the encoded moves
+     */
+    public IntStream legalMoveStream(ChessColor color){
+        return StreamSupport.intStream(legalMoveSpliterator(color), false);
+    }
+
+    /**
+     * Get the promotion code of a piece type, used in the encoded moves
+     * @param type Type of the promoted piece
+     * @return Promotion code
+     */
+    public static int getPromotionCode(ChessPieceType type){
+        return Objects.requireNonNull(type, "type must be non null").ordinal() + 1;
+    }
+
+    /**
+     * Get the piece type of a promotion code
+     * @param code Promotion code
+     * @return Type of the promoted piece, null if the code is no promotion
+     */
+    public static ChessPieceType getPromotionType(int code){
+        if(code == PackedMove.NO_PROMOTION)
+            return null;
+        if(code < 0 || code > ChessPieceType.values().length)
+            throw new IllegalArgumentException("Promotion code is out of bounds");
+        return ChessPieceType.values()[code - 1];
     }
 
     /**
@@ -445,6 +990,16 @@ public class Chess extends Board<Chess> {
         return (ChessPiece) super.getPieceAtPosition(position);
     }
 
+    /**
+     * Get piece at a given square
+     * @param square Index of the square to get the piece
+     * @return Piece on given square
+     */
+    @Override
+    public ChessPiece getPieceAtPosition(int square) {
+        return (ChessPiece) super.getPieceAtPosition(square);
+    }
+
     /**
      * Remove piece at a given position
      * @param position Position to remove the given piece
@@ -455,6 +1010,82 @@ public class Chess extends Board<Chess> {
         return (ChessPiece) super.removePieceAtPosition(position);
     }
 
+    /**
+     * Remove piece at a given square
+     * @param square Index of the square to remove the piece
+     * @return Removed piece
+     */
+    @Override
+    public ChessPiece removePieceAtPosition(int square) {
+        ChessPiece removedPiece = (ChessPiece) super.removePieceAtPosition(square);
+        bitBoard.clear(square);
+        if(attackMap != null)
+            attackMap.update(square);
+        if(removedPiece != null) {
+            piecesKey ^= zobrist.piece(removedPiece.getPieceType(), removedPiece.getColor(), square);
+            pieceLists[removedPiece.getColor().ordinal()].remove(square);
+            if(removedPiece.getPieceType() == ChessPieceType.KING)
+                updateKingSquare(removedPiece.getColor());
+        }
+        positionVersion++;
+        return removedPiece;
+    }
+
+    /**
+     * Set piece at given position
+     * @param piece Piece to set at given position
+     * @param position Position to set the piece on
+     * @return Set piece
+     */
+    @Override
+    public ChessPiece setPieceAtPosition(Piece<Chess> piece, Vector position) {
+        return (ChessPiece) super.setPieceAtPosition(piece, position);
+    }
+
+    /**
+     * Set piece at a given square
+     * @param piece Piece to set at given square
+     * @param square Index of the square to set the piece on
+     * @return Set piece
+     */
+    @Override
+    public ChessPiece setPieceAtPosition(Piece<Chess> piece, int square) {
+        ChessPiece replacedPiece = getPieceAtPosition(square);
+        ChessPiece chessPiece = (ChessPiece) super.setPieceAtPosition(piece, square);
+        bitBoard.set(chessPiece.getPieceType(), chessPiece.getColor(), square);
+        if(attackMap != null)
+            attackMap.update(square);
+        if(replacedPiece != null) {
+            piecesKey ^= zobrist.piece(replacedPiece.getPieceType(), replacedPiece.getColor(), square);
+            pieceLists[replacedPiece.getColor().ordinal()].remove(square);
+            if(replacedPiece.getPieceType() == ChessPieceType.KING)
+                updateKingSquare(replacedPiece.getColor());
+        }
+        piecesKey ^= zobrist.piece(chessPiece.getPieceType(), chessPiece.getColor(), square);
+        pieceLists[chessPiece.getColor().ordinal()].add(square);
+        if(chessPiece.getPieceType() == ChessPieceType.KING)
+            kingSquares[chessPiece.getColor().ordinal()] = square;
+        positionVersion++;
+        return chessPiece;
+    }
+
+    /**
+     * Update the King square of a color after one of its Kings has been removed
+     * @param color Color of the King
+     */
+    private void updateKingSquare(ChessColor color) {
+        kingSquares[color.ordinal()] = bitBoard.first(ChessPieceType.KING, color);
+    }
+
+    /**
+     * Get the square of the King of a color
+     * @param color Color of the King
+     * @return Index of the square, -1 if the color has no King
+     */
+    public int getKingSquare(ChessColor color) {
+        return kingSquares[Objects.requireNonNull(color, "color must be non null").ordinal()];
+    }
+
     /**
      * Set piece at given position
      * @param piece Piece to set at given indexes
@@ -478,6 +1109,47 @@ public class Chess extends Board<Chess> {
         return (ChessPiece) super.movePieceAtPosition(from, to);
     }
 
+    /**
+     * Move the piece of a square to another square
+     * @param from Index of the square from where to move the piece
+     * @param to Index of the square to where to move the piece
+     * @return Moved piece
+     */
+    @Override
+    public ChessPiece movePieceAtPosition(int from, int to) {
+        return (ChessPiece) super.movePieceAtPosition(from, to);
+    }
+
+    /**
+     * Remove all pieces from the board
+     */
+    @Override
+    public void emptyBoard() {
+        super.emptyBoard();
+        bitBoard.reset();
+        if(attackMap != null)
+            attackMap.rebuild();
+        for (ChessColor color : ChessColor.values()) {
+            pieceLists[color.ordinal()].clear();
+            kingSquares[color.ordinal()] = NO_SQUARE;
+        }
+        piecesKey = 0;
+        positionVersion++;
+    }
+
+    /**
+     * Search for a piece in the board
+     * @param pieceToSearch Piece to be searched
+     * @return The list off all pieces found
+     */
+    @Override
+    public ArrayList<Vector> searchPieces(Piece<Chess> pieceToSearch) {
+        if(!(pieceToSearch instanceof ChessPiece))
+            return super.searchPieces(pieceToSearch);
+        ChessPiece chessPiece = (ChessPiece) pieceToSearch;
+        return positionsOf(chessPiece.getPieceType(), chessPiece.getColor());
+    }
+
     /**
      * Lists all pieces of the same color
      * @param colorToSearch Piece color to search
@@ -485,21 +1157,29 @@ public class Chess extends Board<Chess> {
      */
     public ArrayList<Vector> searchPieces(ChessColor colorToSearch){
         Objects.requireNonNull(colorToSearch, "color to search must be non null");
-        ArrayList<Vector> foundPieces = new ArrayList<>();
-        for (int i = 0; i < getLENGTH(); i++) {
-            for (int j = 0; j < getHEIGHT(); j++) {
-                Vector pos = new Vector(i, j);
-                ChessPiece pieceOnPosition = getPieceAtPosition(pos);
-                if (pieceOnPosition != null && pieceOnPosition.getColor() == colorToSearch) {
-                    foundPieces.add(pos);
-                }
-            }
+        PieceList pieces = pieceLists[colorToSearch.ordinal()];
+        ArrayList<Vector> positions = new ArrayList<>(pieces.size());
+        for (int k = 0; k < pieces.size(); k++) {
+            positions.add(getPosition(pieces.get(k)));
         }
-        return foundPieces;
+        return positions;
+    }
+
+    /**
+     * Count the pieces of a type and color
+     * @param type Type of the pieces
+     * @param color Color of the pieces
+     * @return Number of pieces on the board
+     */
+    public int countPieces(ChessPieceType type, ChessColor color) {
+        Objects.requireNonNull(type, "type must be non null");
+        Objects.requireNonNull(color, "color must be non null");
+        return bitBoard.count(type, color);
     }
 
     /**
      * Check if the piece is attacked
+     * Works backwards from the position : the attackers are looked up from it instead of simulating every enemy piece
      * @param defendingColor Defending piece color
      * @param position Position to check if attacked
      * @return Either the pice at position is attacked or not
@@ -507,22 +1187,194 @@ public class Chess extends Board<Chess> {
     public boolean isAttacked(ChessColor defendingColor, Vector position) {
         Objects.requireNonNull(defendingColor, "defending color must be non null");
         Objects.requireNonNull(position, "position vector must be non null");
+        return isAttacked(defendingColor, indexOf(position));
+    }
 
-        for (int i = 0; i < getLENGTH(); i++) {
-            for (int j = 0; j < getHEIGHT(); j++) {
-                ChessPiece pieceOnPosition = getPieceAtPosition(new Vector(i, j));
-                if (pieceOnPosition != null && !pieceOnPosition.getColor().equals(defendingColor)) {
-                    if (pieceOnPosition.move(i, j, position.getI(), position.getJ(), false)) {
-                        return true;
-                    }
-                }
+    /**
+     * Check if the piece on a square is attacked
+     * @param defendingColor Defending piece color
+     * @param square Index of the square to check if attacked
+     * @return Either the piece on the square is attacked or not
+     */
+    public boolean isAttacked(ChessColor defendingColor, int square) {
+        Objects.requireNonNull(defendingColor, "defending color must be non null");
+        if(square < 0 || square >= getLENGTH() * getHEIGHT())
+            throw new IllegalArgumentException("Position is out of bounds");
+        if(attackMap != null)
+            return attackMap.isAttacked(defendingColor.next(), square);
+        return attacks.isAttacked(bitBoard, square, defendingColor.next());
+    }
+
+    /**
+     * Count the enemy pieces attacking a square
+     * @param defendingColor Defending piece color
+     * @param square Index of the square
+     * @return Number of attackers
+     */
+    public int countAttackers(ChessColor defendingColor, int square) {
+        Objects.requireNonNull(defendingColor, "defending color must be non null");
+        if(square < 0 || square >= getLENGTH() * getHEIGHT())
+            throw new IllegalArgumentException("Position is out of bounds");
+        if(attackMap != null)
+            return attackMap.countAttackers(defendingColor.next(), square);
+        return attacks.countAttackers(bitBoard, square, defendingColor.next());
+    }
+
+    /**
+     * Enable or disable the attack map
+     * When enabled, the squares attacked by each color are updated with every modified square, which makes
+     * isAttacked, countAttackers and check lookups at the cost of slower moves
+     * @param enabled Either the attack map is maintained or not
+     */
+    public void setAttackMapEnabled(boolean enabled) {
+        if(!enabled)
+            attackMap = null;
+        else if(attackMap == null)
+            attackMap = new AttackMap(bitBoard, attacks, getLENGTH() * getHEIGHT());
+    }
+
+    /**
+     * Check if the attack map is enabled
+     * @return Either the attack map is maintained or not
+     */
+    public boolean isAttackMapEnabled() {
+        return attackMap != null;
+    }
+
+    /**
+     * Set the number of pieces whose possible moves are cached, 0 to disable the cache
+     * The moves are cached by position and square, so asking again for the moves of a piece in the same position, or
+     * moving it, looks them up instead of generating them, the least recently used ones being evicted
+     * The cache is not thread-safe, the moves checked by isLegal and the legal move streams are never cached
+     * @param capacity Maximum number of cached pieces
+     */
+    public void setMoveCacheCapacity(int capacity) {
+        if(capacity < 0)
+            throw new IllegalArgumentException("Capacity must be positive");
+        if(capacity != getMoveCacheCapacity())
+            moveCache = capacity == 0 ? null : new MoveCache(capacity);
+    }
+
+    /**
+     * Get the number of pieces whose possible moves are cached
+     * @return Maximum number of cached pieces, 0 if the cache is disabled
+     */
+    public int getMoveCacheCapacity() {
+        return moveCache == null ? 0 : moveCache.getCapacity();
+    }
+
+    /**
+     * Get the number of lookups of the move cache that found the moves
+     * @return Number of hits since the cache was enabled
+     */
+    public long getMoveCacheHits() {
+        return moveCache == null ? 0 : moveCache.getHits();
+    }
+
+    /**
+     * Get the state checked by the move cache on a hit, independent of the position key : the type and color of the
+     * piece, the color to play, the castling rights and the en passant square
+     * @param piece Piece whose moves are looked up
+     * @return Packed state
+     */
+    private long moveCacheState(ChessPiece piece) {
+        return (getIrreversibleState() & ((1L << HALFMOVE_SHIFT) - 1))
+                | (long) piece.getPieceType().ordinal() << MOVE_CACHE_TYPE_SHIFT
+                | (long) piece.getColor().ordinal() << MOVE_CACHE_COLOR_SHIFT
+                | (long) turn.ordinal() << MOVE_CACHE_TURN_SHIFT;
+    }
+
+    /**
+     * Get the number of lookups of the move cache that found the moves of another position of the same key
+     * @return Number of detected collisions, counted as misses
+     */
+    public long getMoveCacheCollisions() {
+        return moveCache == null ? 0 : moveCache.getCollisions();
+    }
+
+    /**
+     * Get the number of lookups of the move cache that had to generate the moves
+     * @return Number of misses since the cache was enabled
+     */
+    public long getMoveCacheMisses() {
+        return moveCache == null ? 0 : moveCache.getMisses();
+    }
+
+    /**
+     * Get the attack tables of the board geometry
+     * @return Attack tables
+     */
+    Attacks getAttacks() {
+        return attacks;
+    }
+
+    /**
+     * Get the bitboards of the position
+     * @return Bitboards of the position
+     */
+    BitBoard getBitBoard() {
+        return bitBoard;
+    }
+
+    /**
+     * Get the version of the position, changed every time a square is modified
+     * @return Version of the position
+     */
+    long getPositionVersion() {
+        return positionVersion;
+    }
+
+    /**
+     * Lists the positions of all pieces of a type and color
+     * @param type Type of the pieces
+     * @param color Color of the pieces
+     * @return List of all positions
+     */
+    private ArrayList<Vector> positionsOf(ChessPieceType type, ChessColor color) {
+        ArrayList<Vector> positions = new ArrayList<>(bitBoard.count(type, color));
+        for (int word = 0; word < bitBoard.words(); word++) {
+            for (long squares = bitBoard.pieces(type, color, word); squares != 0; squares &= squares - 1) {
+                positions.add(getPosition((word << BitBoard.WORD_SHIFT) + Long.numberOfTrailingZeros(squares)));
             }
         }
-        return false;
+        return positions;
+    }
+
+    /**
+     * Check if a move leaves the King of the moving piece safe
+     * The move is never played : pinned and checking pieces of the position are used instead
+     * @param piece Moving piece
+     * @param start Starting position
+     * @param destination Ending position
+     * @param moveType Move type
+     * @return Either the move is legal or not
+     */
+    public boolean isMoveLegal(ChessPiece piece, Vector start, Vector destination, Move<Chess> moveType) {
+        Objects.requireNonNull(start, "start vector must be non null");
+        Objects.requireNonNull(destination, "destination vector must be non null");
+        return isMoveLegal(piece, indexOf(start), indexOf(destination), moveType);
+    }
+
+    /**
+     * Check if a move leaves the King of the moving piece safe
+     * @param piece Moving piece
+     * @param start Index of the starting square
+     * @param destination Index of the ending square
+     * @param moveType Move type
+     * @return Either the move is legal or not
+     */
+    public boolean isMoveLegal(ChessPiece piece, int start, int destination, Move<Chess> moveType) {
+        Objects.requireNonNull(piece, "piece must be non null");
+        Objects.requireNonNull(moveType, "moveType must be non null");
+        int capturedSquare = moveType == PAWN_EN_PASSANT_UP || moveType == PAWN_EN_PASSANT_DOWN
+                ? destination - (destination / getLENGTH() - start / getLENGTH()) * getLENGTH()
+                : destination;
+        return legalMoveFilter.isLegal(piece.getColor(), start, destination, capturedSquare);
     }
 
     /**
      * Check if a move is  produce a check
+     * The move is never played, see isMoveLegal
      * @param piece Piece to check on
      * @param start Starting position
      * @param destination Ending position
@@ -530,22 +1382,88 @@ public class Chess extends Board<Chess> {
      * @return Either the move is producing a check or not
      */
     public boolean doesMoveCheck(ChessPiece piece, Vector start, Vector destination, Move<Chess> moveType){
-        Objects.requireNonNull(piece, "piece must be non null");
-        Objects.requireNonNull(start, "start vector must be non null");
-        Objects.requireNonNull(destination, "destination vector must be non null");
-        Objects.requireNonNull(moveType, "moveType must be non null");
-        piece.doMove(start, destination, moveType);
-        boolean isCheck = check(turn);
-        historicMoves.revertLastMove();
-        return isCheck;
+        return !isMoveLegal(piece, start, destination, moveType);
     }
 
     /**
-     * Get promoted piece
-     * @return Affected piece
+     * Check if the color to play can move a piece from a square to another
+     * The position is only read, so many threads can check moves at once as long as no move is being played
+     * @param from Index of the square from which the move is made
+     * @param to Index of the square to which the move is made
+     * @return Either the move is legal or not
+     */
+    public boolean isLegal(int from, int to){
+        if(from < 0 || from >= getLENGTH() * getHEIGHT() || to < 0 || to >= getLENGTH() * getHEIGHT())
+            throw new IllegalArgumentException("Position is out of bounds");
+        ChessPiece piece = getPieceAtPosition(from);
+        return isStarted && piece != null && piece.getColor() == turn && piece.move(from, to, false);
+    }
+
+    /**
+     * Check if the color to play can play a move encoded by PackedMove
+     * The position is only read, so many threads can check moves at once as long as no move is being played
+     * @param move Encoded move
+     * @return Either the move is legal or not, a rule that is not one of the moved piece making it illegal
+     */
+    public boolean isLegal(int move){
+        int from = PackedMove.getFrom(move), to = PackedMove.getTo(move);
+        if(from >= getLENGTH() * getHEIGHT() || to >= getLENGTH() * getHEIGHT())
+            return false;
+        ChessPiece piece = getPieceAtPosition(from);
+        return isStarted && piece != null && piece.getColor() == turn && piece.hasRule(PackedMove.getRule(move))
+                && piece.canMove(from, to, getRule(PackedMove.getRule(move)));
+    }
+
+    /**
+     * Get the piece a Pawn is promoted to, the one chosen by the move being played or else a Queen
+     * @return Promoted piece
      */
     public ChessPiece getPromotedPiece(){
-        return new Queen(getTurn(), this);
+        if(requestedPromotion != null)
+            return getPiece(requestedPromotion, getTurn());
+        return getPiece(ChessPieceType.QUEEN, getTurn());
+    }
+
+    /**
+     * Get the piece of a type and color of this chess, shared by all the squares holding such a piece
+     * Pieces only hold their type, color and moves, so a chess needs one per type and color whatever its position
+     * @param type Type of the piece
+     * @param color Color of the piece
+     * @return Shared piece
+     */
+    public ChessPiece getPiece(ChessPieceType type, ChessColor color){
+        Objects.requireNonNull(type, "type must be non null");
+        Objects.requireNonNull(color, "color must be non null");
+        int index = type.ordinal() * ChessColor.values().length + color.ordinal();
+        if(sharedPieces[index] == null)
+            sharedPieces[index] = createPiece(type, color);
+        return sharedPieces[index];
+    }
+
+    /**
+     * Create a piece of this chess
+     * @param type Type of the piece
+     * @param color Color of the piece
+     * @return Created piece
+     */
+    public ChessPiece createPiece(ChessPieceType type, ChessColor color){
+        Objects.requireNonNull(type, "type must be non null");
+        Objects.requireNonNull(color, "color must be non null");
+        switch (type) {
+            case PAWN:
+                return new Pawn(color, this);
+            case ROOK:
+                return new Rook(color, this);
+            case KNIGHT:
+                return new Knight(color, this);
+            case BISHOP:
+                return new Bishop(color, this);
+            case QUEEN:
+                return new Queen(color, this);
+            case KING:
+                return new King(color, this);
+        }
+        throw new IllegalArgumentException(type + " is not handled");
     }
 
     /**
@@ -575,36 +1493,67 @@ public class Chess extends Board<Chess> {
 
         /**
          * Check if a move is legit
-         * @param start Vector from where the action starts
-         * @param destination Vector to where the action ends
+         * @param start Index of the square from where the action starts
+         * @param destination Index of the square to where the action ends
          * @param moveType Move type
          * @return Either the move is legit or not
          */
         @Override
-        protected boolean canMove(Vector start, Vector destination, Move<Chess> moveType) {
-            Objects.requireNonNull(start, "start vector must be non null");
-            Objects.requireNonNull(destination, "destination vector must be non null");
+        protected boolean canMove(int start, int destination, Move<Chess> moveType) {
             Objects.requireNonNull(moveType, "moveType must be non null");
             ChessPiece pieceEaten = getPieceAtPosition(destination);
             if(pieceEaten != null && pieceEaten.getColor() == getColor()){
                 return false;
             }
-            if(super.canMove(start, destination, moveType)){
-                return !doesMoveCheck(this, start, destination, moveType);
+            return super.canMove(start, destination, moveType)
+                    && isMoveLegal(this, start, destination, moveType);
+        }
+
+        /**
+         * Add all possible moves of the piece to a list of encoded moves, looking them up in the move cache if enabled
+         * @param start Index of the start square of the piece
+         * @param moves List to which the moves are added
+         * @return Number of added moves
+         */
+        @Override
+        public int possibleMoves(int start, MoveList moves) {
+            Objects.requireNonNull(moves, "moves must be non null");
+            if(moveCache == null)
+                return super.possibleMoves(start, moves);
+            int[] cached = cachedMoves(start);
+            for (int move : cached) {
+                moves.add(move);
             }
-            return false;
+            return cached.length;
+        }
+
+        /**
+         * Get the possible moves of the piece from the move cache, generating and caching them on a miss
+         * @param start Index of the start square of the piece
+         * @return Encoded moves, not to be modified
+         */
+        private int[] cachedMoves(int start) {
+            long key = getPositionKey();
+            long state = moveCacheState(this);
+            long occupancy = bitBoard.occupied(BitBoard.word(start));
+            int[] cached = moveCache.get(key, start, state, occupancy);
+            if(cached == null) {
+                MoveList found = new MoveList();
+                super.possibleMoves(start, found);
+                cached = found.toArray();
+                moveCache.put(key, start, state, occupancy, cached);
+            }
+            return cached;
         }
 
         /**
          * Perform a move
-         * @param start Vector from where the move starts
-         * @param destination Vector to where the move ends
+         * @param start Index of the square from where the move starts
+         * @param destination Index of the square to where the move ends
          * @param moveType Move type
          */
         @Override
-        protected void doMove(Vector start, Vector destination, Move<Chess> moveType) {
-            Objects.requireNonNull(start, "start vector must be non null");
-            Objects.requireNonNull(destination, "destination vector must be non null");
+        protected void doMove(int start, int destination, Move<Chess> moveType) {
             Objects.requireNonNull(moveType, "moveType must be non null");
             super.doMove(start, destination, moveType);
         }
@@ -651,7 +1600,7 @@ public class Chess extends Board<Chess> {
          * @param chess Concerned chess
          */
         public Bishop(ChessColor color, Chess chess) {
-            super(color, chess, List.of(diagonals));
+            super(color, chess, BISHOP_MOVES);
         }
 
         /**
@@ -678,7 +1627,7 @@ public class Chess extends Board<Chess> {
          * @param chess Concerned color
          */
         public Rook(ChessColor color, Chess chess) {
-            super(color, chess, List.of(verticalStraights, horizontalStraights));
+            super(color, chess, ROOK_MOVES);
         }
 
         /**
@@ -704,7 +1653,7 @@ public class Chess extends Board<Chess> {
          * @param chess Concerned chess
          */
         public Queen(ChessColor color, Chess chess){
-            super(color, chess, List.of(verticalStraights, horizontalStraights, diagonals));
+            super(color, chess, QUEEN_MOVES);
         }
 
         /**
@@ -730,7 +1679,7 @@ public class Chess extends Board<Chess> {
          * @param chess Concerned chess
          */
         public King(ChessColor color, Chess chess){
-            super(color, chess, List.of(kingVerticalStraights, kingHorizontalStraights, kingDiagonals, kingGrandRoque, kingPetitRoque));
+            super(color, chess, KING_MOVES);
         }
 
         /**
@@ -756,7 +1705,7 @@ public class Chess extends Board<Chess> {
          * @param chess Concerned chess
          */
         public Knight(ChessColor color, Chess chess){
-            super(color, chess, List.of(knightL, knightL2));
+            super(color, chess, KNIGHT_MOVES);
         }
 
         /**
@@ -783,8 +1732,8 @@ public class Chess extends Board<Chess> {
         public Pawn(ChessColor color, Chess chess){
             super(color,
                     chess, color.getDirection() == Direction.UP ?
-                            List.of(pawnStraight1Up, pawnStraight2Up, pawnEat1Up, pawnEnPassantUp)
-                            : List.of(pawnStraight1Down, pawnStraight2Down, pawnEat1Down, pawnEnPassantDown));
+                            PAWN_UP_MOVES
+                            : PAWN_DOWN_MOVES);
         }
 
         /**
@@ -796,6 +1745,22 @@ public class Chess extends Board<Chess> {
             return ChessPieceType.PAWN;
         }
 
+        /**
+         * Add a possible move of the Pawn, a move reaching the promotion row being added once per promoted piece
+         * @param move Encoded move
+         * @param moves List to which the move is added
+         */
+        @Override
+        protected void addMove(int move, MoveList moves) {
+            if(getPosition(PackedMove.getTo(move)).getJ() != getColor().getPromotionRow(Chess.this)) {
+                moves.add(move);
+                return;
+            }
+            for (ChessPieceType promotion : PROMOTIONS) {
+                moves.add(PackedMove.withPromotion(move, getPromotionCode(promotion)));
+            }
+        }
+
     }
 
 }
\ No newline at end of file
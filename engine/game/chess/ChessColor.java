@@ -70,9 +70,10 @@ public enum ChessColor {
 
     /**
      * Get promotion row
+     * @param chess Concerned chess, the row depending on its height
      * @return Promotion row index
      */
-    int getPromotionRow(){
-        return getDirection().opposite().startingEdge();
+    int getPromotionRow(Chess chess){
+        return getDirection().opposite().startingEdge(chess);
     }
 }
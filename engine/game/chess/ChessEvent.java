@@ -0,0 +1,166 @@
+package engine.game.chess;
+
+import java.util.Objects;
+
+/**
+ * Event of a chess game, only published once the engine has committed it, never during the simulations of the engine
+ * Events are immutable so that they can be delivered to another thread
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+public final class ChessEvent {
+    /**
+     * Type of event
+     */
+    public enum Type {
+        GAME_STARTED, MOVE_PLAYED, CHECK, GAME_OVER
+    }
+
+    private static final int NO_SQUARE = -1;
+
+    private final Type type;
+    private final ChessColor color;
+    private final int from;
+    private final int to;
+    private final Chess.ChessPieceType piece;
+    private final Chess.ChessPieceType captured;
+    private final Chess.ChessPieceType promotion;
+
+    /**
+     * ChessEvent constructor
+     * @param type Type of event
+     * @param color Concerned color, null if none
+     * @param from Index of the start square of the move, -1 if not a move
+     * @param to Index of the destination square of the move, -1 if not a move
+     * @param piece Type of the moved piece, null if not a move
+     * @param captured Type of the captured piece, null if none
+     * @param promotion Type the piece is promoted to, null if none
+     */
+    private ChessEvent(Type type, ChessColor color, int from, int to, Chess.ChessPieceType piece,
+                       Chess.ChessPieceType captured, Chess.ChessPieceType promotion) {
+        this.type = type;
+        this.color = color;
+        this.from = from;
+        this.to = to;
+        this.piece = piece;
+        this.captured = captured;
+        this.promotion = promotion;
+    }
+
+    /**
+     * Create the event of the start of a game
+     * @param first Color playing first
+     * @return Event
+     */
+    static ChessEvent gameStarted(ChessColor first) {
+        return new ChessEvent(Type.GAME_STARTED, Objects.requireNonNull(first, "first must be non null"),
+                NO_SQUARE, NO_SQUARE, null, null, null);
+    }
+
+    /**
+     * Create the event of a played move
+     * @param color Color of the moved piece
+     * @param from Index of the start square
+     * @param to Index of the destination square
+     * @param piece Type of the moved piece
+     * @param captured Type of the captured piece, null if none
+     * @param promotion Type the piece is promoted to, null if none
+     * @return Event
+     */
+    static ChessEvent movePlayed(ChessColor color, int from, int to, Chess.ChessPieceType piece,
+                                 Chess.ChessPieceType captured, Chess.ChessPieceType promotion) {
+        return new ChessEvent(Type.MOVE_PLAYED, Objects.requireNonNull(color, "color must be non null"), from, to,
+                Objects.requireNonNull(piece, "piece must be non null"), captured, promotion);
+    }
+
+    /**
+     * Create the event of a check
+     * @param color Color in check
+     * @return Event
+     */
+    static ChessEvent check(ChessColor color) {
+        return new ChessEvent(Type.CHECK, Objects.requireNonNull(color, "color must be non null"),
+                NO_SQUARE, NO_SQUARE, null, null, null);
+    }
+
+    /**
+     * Create the event of the end of a game
+     * @param winner Winner color, null on a draw
+     * @return Event
+     */
+    static ChessEvent gameOver(ChessColor winner) {
+        return new ChessEvent(Type.GAME_OVER, winner, NO_SQUARE, NO_SQUARE, null, null, null);
+    }
+
+    /**
+     * Get the type of event
+     * @return Type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the concerned color : the first color on start, the moving color on a move, the color in check on a check
+     * and the winner at the end of a game
+     * @return Color, null at the end of a drawn game
+     */
+    public ChessColor getColor() {
+        return color;
+    }
+
+    /**
+     * Get the start square of the move
+     * @return Index of the square, -1 if the event is not a move
+     */
+    public int getFrom() {
+        return from;
+    }
+
+    /**
+     * Get the destination square of the move
+     * @return Index of the square, -1 if the event is not a move
+     */
+    public int getTo() {
+        return to;
+    }
+
+    /**
+     * Get the type of the moved piece
+     * @return Type, null if the event is not a move
+     */
+    public Chess.ChessPieceType getPiece() {
+        return piece;
+    }
+
+    /**
+     * Get the type of the piece captured by the move, the Pawn taken en passant included
+     * @return Type, null if the move captures nothing
+     */
+    public Chess.ChessPieceType getCaptured() {
+        return captured;
+    }
+
+    /**
+     * Get the type the moved Pawn is promoted to
+     * @return Type, null if the move is not a promotion
+     */
+    public Chess.ChessPieceType getPromotion() {
+        return promotion;
+    }
+
+    /**
+     * Get the event to a string formatted value
+     * @return String formatted value of the event
+     */
+    @Override
+    public String toString() {
+        switch (type) {
+            case MOVE_PLAYED:
+                return type + " " + color + " " + piece + " " + from + "->" + to
+                        + (captured != null ? " x" + captured : "") + (promotion != null ? " =" + promotion : "");
+            default:
+                return type + " " + color;
+        }
+    }
+}
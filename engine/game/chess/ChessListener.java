@@ -0,0 +1,19 @@
+package engine.game.chess;
+
+import java.util.List;
+
+/**
+ * Listener of the events of a chess game, added with Chess.addListener
+ * Events are delivered in the order they happened, by batches whose size is chosen when the listener is added
+ * An exception thrown by a listener goes to the uncaught exception handler of the delivering thread, never to the game
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+@FunctionalInterface
+public interface ChessListener {
+    /**
+     * Receive a batch of events
+     * @param events Events in the order they happened, not modifiable
+     */
+    void onEvents(List<ChessEvent> events);
+}
@@ -23,6 +23,19 @@ public class EatPiece extends MoveChessPiece {
     public Piece<Chess> doAction(Vector start, Vector destination, Board<Chess> board) {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
+        Objects.requireNonNull(board, "chess board must be non null");
+        return doAction(board.indexOf(start), board.indexOf(destination), board);
+    }
+
+    /**
+     * Perform action when eating a piece by square indexes
+     * @param start Index of the start square of the action
+     * @param destination Index of the destination square of the action
+     * @param board Concerned board
+     * @return Removed piece
+     */
+    @Override
+    public Piece<Chess> doAction(int start, int destination, Board<Chess> board) {
         Objects.requireNonNull(board, "chess board must be non null");
         Piece<Chess> removedPiece = board.removePieceAtPosition(destination);
         super.doAction(start, destination, board);
@@ -39,6 +52,18 @@ public class EatPiece extends MoveChessPiece {
     public void revertAction(Vector start, Vector destination, Piece<Chess> affectedPiece, Board<Chess> board) {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
+        Objects.requireNonNull(board, "chess board must be non null");
+        revertAction(board.indexOf(start), board.indexOf(destination), affectedPiece, board);
+    }
+
+    /**
+     * Revert action when a piece is eaten by square indexes
+     * @param start Index of the start square of the action
+     * @param destination Index of the destination square of the action
+     * @param board Concerned board
+     */
+    @Override
+    public void revertAction(int start, int destination, Piece<Chess> affectedPiece, Board<Chess> board) {
         Objects.requireNonNull(board, "chess board must be non null");
         super.revertAction(start, destination, affectedPiece, board);
         if(affectedPiece != null)
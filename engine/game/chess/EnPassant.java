@@ -22,20 +22,44 @@ public class EnPassant implements GameAction<Chess>, GameCondition<Chess> {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
         Objects.requireNonNull(chess, "chess board must be non null");
-        Chess.ChessPiece pieceToEat = chess.self().getPieceAtPosition(eatPosition(start, destination));
-        return (pieceToEat instanceof Chess.Pawn
-            && chess.lastPieceMoved().equals(pieceToEat)
-            && (chess.isLastAction(chess.self().getPawnStraight2Up()) || (chess.isLastAction(chess.self().getPawnStraight2Down()))));
+        return checkCondition(chess.indexOf(start), chess.indexOf(destination), chess);
+    }
+
+    /**
+     * Check condition for En passant by square indexes
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param chess Concerned Chessboard
+     * @return Either the condition for En passant is accepted
+     */
+    @Override
+    public boolean checkCondition(int start, int destination, Board<Chess> chess) {
+        Objects.requireNonNull(chess, "chess board must be non null");
+        Chess.ChessPiece pieceToEat = chess.self().getPieceAtPosition(eatPosition(start, destination, chess));
+        return pieceToEat instanceof Chess.Pawn
+            && destination == chess.self().getEnPassantSquare();
     }
 
     /**
      * Get the victim of the En passant
      * @param start Start position
      * @param destination Destination position
+     * @param chess Concerned ChessBoard
      * @return Position of the victime piece
      */
-    protected Vector eatPosition(Vector start, Vector destination){
-        return new Vector(destination.getI(), start.getJ());
+    protected Vector eatPosition(Vector start, Vector destination, Board<Chess> chess){
+        return chess.getPosition(destination.getI(), start.getJ());
+    }
+
+    /**
+     * Get the square of the victim of the En passant
+     * @param start Index of the start square
+     * @param destination Index of the destination square
+     * @param chess Concerned ChessBoard
+     * @return Index of the square of the victim piece
+     */
+    protected int eatPosition(int start, int destination, Board<Chess> chess){
+        return chess.getPosition(chess.getPosition(destination).getI(), chess.getPosition(start).getJ()).getIndex();
     }
 
     /**
@@ -50,7 +74,20 @@ public class EnPassant implements GameAction<Chess>, GameCondition<Chess> {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
         Objects.requireNonNull(chess, "chess board must be non null");
-        return chess.removePieceAtPosition(eatPosition(start, destination));
+        return doAction(chess.indexOf(start), chess.indexOf(destination), chess);
+    }
+
+    /**
+     * Perform En passant action by square indexes
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param chess Concerned ChessBoard
+     * @return Eaten piece
+     */
+    @Override
+    public Piece<Chess> doAction(int start, int destination, Board<Chess> chess) {
+        Objects.requireNonNull(chess, "chess board must be non null");
+        return chess.removePieceAtPosition(eatPosition(start, destination, chess));
     }
 
     /**
@@ -64,8 +101,29 @@ public class EnPassant implements GameAction<Chess>, GameCondition<Chess> {
     public void revertAction(Vector start, Vector destination, Piece<Chess> affectedPiece, Board<Chess> chess) {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
+        Objects.requireNonNull(chess, "chess board must be non null");
+        revertAction(chess.indexOf(start), chess.indexOf(destination), affectedPiece, chess);
+    }
+
+    /**
+     * Revert En passant action by square indexes
+     * @param start Index of the square from where the action started
+     * @param destination Index of the square to where the action ended
+     * @param affectedPiece Affected pieces by the action
+     * @param chess Concerned ChessBoard
+     */
+    @Override
+    public void revertAction(int start, int destination, Piece<Chess> affectedPiece, Board<Chess> chess) {
         Objects.requireNonNull(chess, "chess board must be non null");
         if(affectedPiece != null)
-            chess.setPieceAtPosition(affectedPiece, eatPosition(start, destination));
+            chess.setPieceAtPosition(affectedPiece, eatPosition(start, destination, chess));
+    }
+
+    /**
+     * @return Always true
+     */
+    @Override
+    public boolean isIndependent() {
+        return true;
     }
 }
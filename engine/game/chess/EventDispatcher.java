@@ -0,0 +1,196 @@
+package engine.game.chess;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Delivery of the events of a chess game to its listeners
+ * Each listener has its own executor and batch size : its events are kept until the batch is full or the game is
+ * over, then the batch is handed to the executor, one batch at a time so that they arrive in order
+ * Events are dispatched one after the other in the order they were published, an event published by a listener
+ * being dispatched once the current one reached every listener
+ * The dispatcher is not thread-safe, events are published by the thread playing on the chess
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+class EventDispatcher {
+    // Runs the delivery in the thread publishing the event
+    static final Executor DIRECT = Runnable::run;
+
+    // Iterated over a snapshot, so that a listener can be added or removed during a delivery
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Queue<ChessEvent> published = new ArrayDeque<>();
+    private boolean isHeld;
+    private boolean isDispatching;
+
+    /**
+     * Add a listener
+     * @param listener Added listener
+     * @param executor Executor of the deliveries
+     * @param batchSize Number of events delivered at once
+     */
+    void add(ChessListener listener, Executor executor, int batchSize) {
+        subscriptions.add(new Subscription(listener, executor, batchSize));
+    }
+
+    /**
+     * Remove a listener, delivering its pending events first
+     * @param listener Removed listener
+     * @return Either the listener was added or not
+     */
+    boolean remove(ChessListener listener) {
+        for (Subscription subscription : subscriptions) {
+            if(subscription.listener == listener) {
+                subscriptions.remove(subscription);
+                subscription.isRemoved = true;
+                subscription.deliver();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if events have to be published, so that nothing is built for no listener
+     * @return Either a listener is added or not
+     */
+    boolean hasListeners() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Keep the published events until released, so that the listeners only see a completed state change
+     */
+    void hold() {
+        isHeld = true;
+    }
+
+    /**
+     * Dispatch the events published since the dispatcher was held
+     */
+    void release() {
+        isHeld = false;
+        dispatch();
+    }
+
+    /**
+     * Publish an event to every listener
+     * @param event Published event
+     */
+    void publish(ChessEvent event) {
+        published.add(Objects.requireNonNull(event, "event must be non null"));
+        dispatch();
+    }
+
+    /**
+     * Deliver the pending events of every listener
+     */
+    void flush() {
+        for (Subscription subscription : subscriptions) {
+            subscription.deliver();
+        }
+    }
+
+    /**
+     * Hand the published events to every listener in order, unless held or already dispatching
+     */
+    private void dispatch() {
+        if(isHeld || isDispatching)
+            return;
+        isDispatching = true;
+        try {
+            ChessEvent event;
+            while ((event = published.poll()) != null) {
+                // The end of a game delivers every batch, nothing would complete it
+                boolean isLast = event.getType() == ChessEvent.Type.GAME_OVER;
+                for (Subscription subscription : subscriptions) {
+                    if(subscription.isRemoved)
+                        continue;
+                    subscription.pending.add(event);
+                    if(isLast || subscription.pending.size() >= subscription.batchSize)
+                        subscription.deliver();
+                }
+            }
+        } finally {
+            isDispatching = false;
+        }
+    }
+
+    /**
+     * Listener with its delivery settings, pending events and batches waiting for the executor
+     */
+    private static final class Subscription {
+        private final ChessListener listener;
+        private final Executor executor;
+        private final int batchSize;
+        private final List<ChessEvent> pending = new ArrayList<>();
+        private boolean isRemoved;
+
+        // Guarded by the subscription, the executor running the batches in other threads
+        private final Queue<List<ChessEvent>> batches = new ArrayDeque<>();
+        private boolean isDelivering;
+
+        /**
+         * Subscription constructor
+         * @param listener Listener
+         * @param executor Executor of the deliveries
+         * @param batchSize Number of events delivered at once
+         */
+        private Subscription(ChessListener listener, Executor executor, int batchSize) {
+            this.listener = Objects.requireNonNull(listener, "listener must be non null");
+            this.executor = Objects.requireNonNull(executor, "executor must be non null");
+            if(batchSize <= 0)
+                throw new IllegalArgumentException("Batch size must be above 0");
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Queue the pending events as a batch, handing it to the executor unless a batch is being delivered
+         */
+        private void deliver() {
+            if(pending.isEmpty())
+                return;
+            List<ChessEvent> batch = Collections.unmodifiableList(new ArrayList<>(pending));
+            pending.clear();
+            boolean isIdle;
+            synchronized (this) {
+                batches.add(batch);
+                isIdle = !isDelivering;
+                isDelivering = true;
+            }
+            if(isIdle)
+                executor.execute(this::deliverNext);
+        }
+
+        /**
+         * Deliver the oldest queued batch, then hand the next one to the executor
+         * An exception of the listener is reported to the handler of the thread, so that it neither reaches the
+         * game nor stops the next deliveries
+         */
+        private void deliverNext() {
+            List<ChessEvent> batch;
+            synchronized (this) {
+                batch = batches.poll();
+            }
+            try {
+                listener.onEvents(batch);
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+            boolean hasNext;
+            synchronized (this) {
+                hasNext = !batches.isEmpty();
+                isDelivering = hasNext;
+            }
+            if(hasNext)
+                executor.execute(this::deliverNext);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package engine.game.chess;
+
+/**
+ * Status of a chess game for the color to play
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+public enum GameStatus {
+    ONGOING, CHECK, CHECKMATE, STALEMATE;
+
+    /**
+     * Check if the game is over
+     * @return Either no move can be played anymore or not
+     */
+    public boolean isOver() {
+        return this == CHECKMATE || this == STALEMATE;
+    }
+}
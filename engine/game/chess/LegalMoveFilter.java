@@ -0,0 +1,138 @@
+package engine.game.chess;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Filter of the moves leaving their own King in check
+ * Checking and pinned pieces are computed once per position and color, then every candidate move is validated
+ * against them without being played
+ * The filter only reads the position : the King safety of a position is an immutable snapshot published through
+ * an atomic reference, so many threads can validate moves at once as long as no move is being played
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+class LegalMoveFilter {
+    private final Chess chess;
+    private final AtomicReferenceArray<KingSafety> kingSafeties;
+
+    /**
+     * LegalMoveFilter constructor
+     * @param chess Filtered chess
+     */
+    LegalMoveFilter(Chess chess) {
+        this.chess = Objects.requireNonNull(chess, "chess must be non null");
+        kingSafeties = new AtomicReferenceArray<>(ChessColor.values().length);
+    }
+
+    /**
+     * Check if a move leaves the King of the moving color safe
+     * @param color Color of the moving piece
+     * @param from Start square index
+     * @param to Destination square index
+     * @param capturedSquare Square of the captured piece if it is not the destination, -1 otherwise
+     * @return Either the move is legal or not
+     */
+    boolean isLegal(ChessColor color, int from, int to, int capturedSquare) {
+        Objects.requireNonNull(color, "color must be non null");
+        KingSafety safety = kingSafety(color);
+        if(safety.kingSquare < 0)
+            return true;
+
+        BitBoard board = chess.getBitBoard();
+        Attacks attacks = chess.getAttacks();
+        ChessColor enemy = color.next();
+
+        // The King can not go on an attacked square, sliders seeing through its start square
+        if(from == safety.kingSquare)
+            return !attacks.isAttacked(board, to, enemy, from, to, to);
+
+        // En passant removes two pieces from the same row, its outcome is computed on the simulated occupancy
+        if(capturedSquare >= 0 && capturedSquare != to)
+            return !attacks.isAttacked(board, safety.kingSquare, enemy, from, to, capturedSquare);
+
+        if(safety.nbCheckers > 0) {
+            // Only the King can escape a double check
+            if(safety.nbCheckers > 1)
+                return false;
+            if(to != safety.checker && !attacks.isBetween(safety.kingSquare, safety.checker, to))
+                return false;
+        }
+        if((safety.pinned[BitBoard.word(from)] & BitBoard.bit(from)) == 0)
+            return true;
+        // A pinned piece stays on the line of its King, between the King and the pinning piece or on it
+        return attacks.isBetween(safety.kingSquare, from, to) || attacks.isBetween(safety.kingSquare, to, from);
+    }
+
+    /**
+     * Get the checking and pinned pieces of the current position for a color
+     * Concurrent readers of a same position may compute it each, they publish equal snapshots
+     * @param color Color of the King
+     * @return Up to date King safety
+     */
+    private KingSafety kingSafety(ChessColor color) {
+        KingSafety safety = kingSafeties.get(color.ordinal());
+        long version = chess.getPositionVersion();
+        if(safety == null || safety.version != version) {
+            safety = new KingSafety(version, chess.getBitBoard(), chess.getAttacks(), color);
+            kingSafeties.set(color.ordinal(), safety);
+        }
+        return safety;
+    }
+
+    /**
+     * Checking and pinned pieces of a King in a given position
+     */
+    private static final class KingSafety {
+        private final long version;
+        private final int kingSquare;
+        private final int nbCheckers;
+        private final int checker;
+        private final long[] pinned;
+
+        /**
+         * KingSafety constructor, computes checking and pinned pieces
+         * @param version Version of the position
+         * @param board Bitboards of the position
+         * @param attacks Attack tables of the board
+         * @param color Color of the King
+         */
+        private KingSafety(long version, BitBoard board, Attacks attacks, ChessColor color) {
+            this.version = version;
+            kingSquare = board.first(Chess.ChessPieceType.KING, color);
+            pinned = new long[board.words()];
+            if(kingSquare < 0) {
+                nbCheckers = 0;
+                checker = -1;
+                return;
+            }
+
+            ChessColor enemy = color.next();
+            long[] checkers = new long[board.words()];
+            attacks.attackers(board, kingSquare, enemy, checkers);
+            int count = 0, first = -1;
+            for (int word = 0; word < checkers.length; word++) {
+                if(first < 0 && checkers[word] != 0)
+                    first = (word << BitBoard.WORD_SHIFT) + Long.numberOfTrailingZeros(checkers[word]);
+                count += Long.bitCount(checkers[word]);
+            }
+            nbCheckers = count;
+            checker = first;
+
+            // A piece of the King color is pinned when the next piece along its ray is an enemy slider of that ray
+            boolean hasStraightSnipers = attacks.isOnSliderLine(board, kingSquare, enemy, true);
+            boolean hasDiagonalSnipers = attacks.isOnSliderLine(board, kingSquare, enemy, false);
+            for (int direction = 0; direction < Attacks.NB_DIRECTIONS; direction++) {
+                if(!(Attacks.isStraight(direction) ? hasStraightSnipers : hasDiagonalSnipers)
+                        || !attacks.isOnSliderRay(board, direction, kingSquare, enemy))
+                    continue;
+                int blocker = attacks.firstBlocker(board, direction, kingSquare);
+                if(blocker < 0 || !board.contains(color, blocker))
+                    continue;
+                int sniper = attacks.firstBlocker(board, direction, blocker);
+                if(sniper >= 0 && attacks.isSlider(board, sniper, enemy, direction))
+                    pinned[BitBoard.word(blocker)] |= BitBoard.bit(blocker);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package engine.game.chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the possible moves of the pieces, keyed by the hash key of the position and the square of the piece
+ * The least recently used entry is evicted once the capacity is reached
+ * Entries never need to be invalidated : playing or reverting a move changes the key of the position
+ * As two positions can share a hash key, each entry also keeps check values independent of the key, the piece and the
+ * state of the position and the occupancy around the square, a hit being only returned if they match
+ * The cache is not thread-safe, it is only used by the thread playing on the chess
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+class MoveCache {
+    private final int capacity;
+    private final Map<Key, Entry> entries;
+    private long hits;
+    private long misses;
+    private long collisions;
+
+    /**
+     * MoveCache constructor
+     * @param capacity Maximum number of cached pieces
+     */
+    MoveCache(int capacity) {
+        if(capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be above 0");
+        this.capacity = capacity;
+        // Access order makes the eldest entry the least recently used one
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > MoveCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Get the cached moves of a piece
+     * @param positionKey Hash key of the position
+     * @param square Index of the square of the piece
+     * @param state Piece and state of the position, checked on a hit
+     * @param occupancy Occupancy word of the square, checked on a hit
+     * @return Encoded moves, null if they are not cached or were cached for another position of the same key
+     */
+    int[] get(long positionKey, int square, long state, long occupancy) {
+        Entry entry = entries.get(new Key(positionKey, square));
+        if(entry == null) {
+            misses++;
+            return null;
+        }
+        if(entry.state != state || entry.occupancy != occupancy) {
+            collisions++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.moves;
+    }
+
+    /**
+     * Cache the moves of a piece, replacing the ones cached for another position of the same key
+     * @param positionKey Hash key of the position
+     * @param square Index of the square of the piece
+     * @param state Piece and state of the position
+     * @param occupancy Occupancy word of the square
+     * @param moves Encoded moves, not modified afterwards
+     */
+    void put(long positionKey, int square, long state, long occupancy, int[] moves) {
+        entries.put(new Key(positionKey, square), new Entry(state, occupancy, moves));
+    }
+
+    /**
+     * Get the maximum number of cached pieces
+     * @return Capacity of the cache
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of lookups that found the moves
+     * @return Number of hits
+     */
+    long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups that did not find the moves
+     * @return Number of misses
+     */
+    long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the number of lookups that found the moves of another position of the same key, counted as misses
+     * @return Number of detected collisions
+     */
+    long getCollisions() {
+        return collisions;
+    }
+
+    /**
+     * Cached moves with the check values of their position
+     */
+    private static final class Entry {
+        private final long state;
+        private final long occupancy;
+        private final int[] moves;
+
+        /**
+         * Entry constructor
+         * @param state Piece and state of the position
+         * @param occupancy Occupancy word of the square
+         * @param moves Encoded moves
+         */
+        private Entry(long state, long occupancy, int[] moves) {
+            this.state = state;
+            this.occupancy = occupancy;
+            this.moves = moves;
+        }
+    }
+
+    /**
+     * Key of a piece in a position
+     */
+    private static final class Key {
+        private final long positionKey;
+        private final int square;
+
+        /**
+         * Key constructor
+         * @param positionKey Hash key of the position
+         * @param square Index of the square of the piece
+         */
+        private Key(long positionKey, int square) {
+            this.positionKey = positionKey;
+            this.square = square;
+        }
+
+        /**
+         * Check if the key is equal to an object
+         * @param o Object to check equality
+         * @return Either the key and the object are equal or not
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return positionKey == key.positionKey && square == key.square;
+        }
+
+        /**
+         * Get the hash code of the key
+         * @return Hash code of the key
+         */
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(positionKey) + square;
+        }
+    }
+}
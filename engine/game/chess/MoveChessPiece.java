@@ -21,6 +21,19 @@ public class MoveChessPiece implements GameCondition<Chess>, GameAction<Chess> {
     public Piece<Chess> doAction(Vector start, Vector destination, Board<Chess> board) {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
+        Objects.requireNonNull(board, "chess board must be non null");
+        return doAction(board.indexOf(start), board.indexOf(destination), board);
+    }
+
+    /**
+     * Perform a ChessPiece move by square indexes
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param board Concerned ChessBoard
+     * @return Moved piece
+     */
+    @Override
+    public Piece<Chess> doAction(int start, int destination, Board<Chess> board) {
         Objects.requireNonNull(board, "chess board must be non null");
         board.movePieceAtPosition(start, destination);
         return null;
@@ -37,6 +50,19 @@ public class MoveChessPiece implements GameCondition<Chess>, GameAction<Chess> {
     public void revertAction(Vector start, Vector destination, Piece<Chess> affectedPiece, Board<Chess> board) {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
+        Objects.requireNonNull(board, "chess board must be non null");
+        revertAction(board.indexOf(start), board.indexOf(destination), affectedPiece, board);
+    }
+
+    /**
+     * Revert ChessPiece move by square indexes
+     * @param start Index of the square from where the action started
+     * @param destination Index of the square to where the action ended
+     * @param affectedPiece Affected pieces by the action
+     * @param board Concerned ChessBoard
+     */
+    @Override
+    public void revertAction(int start, int destination, Piece<Chess> affectedPiece, Board<Chess> board) {
         Objects.requireNonNull(board, "chess board must be non null");
         board.movePieceAtPosition(destination, start);
     }
@@ -52,6 +78,19 @@ public class MoveChessPiece implements GameCondition<Chess>, GameAction<Chess> {
     public boolean checkCondition(Vector start, Vector destination, Board<Chess> board) {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
+        Objects.requireNonNull(board, "chess board must be non null");
+        return checkCondition(board.indexOf(start), board.indexOf(destination), board);
+    }
+
+    /**
+     * Check if a ChessPiece move is valid by square indexes
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param board Concerned ChessBoard
+     * @return Either the move is valid or not
+     */
+    @Override
+    public boolean checkCondition(int start, int destination, Board<Chess> board) {
         Objects.requireNonNull(board, "chess board must be non null");
         Chess.ChessPiece piece = board.self().getPieceAtPosition(destination);
         if(piece != null)
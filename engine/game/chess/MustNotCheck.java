@@ -2,6 +2,8 @@ package engine.game.chess;
 
 import engine.game.board.Board;
 import engine.game.board.GameCondition;
+import engine.game.board.Geometry;
+import engine.game.board.Position;
 import engine.game.board.Vector;
 
 import java.util.Objects;
@@ -13,7 +15,7 @@ import java.util.Objects;
  */
 public class MustNotCheck implements GameCondition<Chess> {
     /**
-     * Check if during a movement there is a check
+     * Check if before or during a movement there is a check
      * @param start Vector from where the action starts
      * @param destination Vector to where the action ends
      * @param chess Concerned ChessBoard
@@ -24,12 +26,41 @@ public class MustNotCheck implements GameCondition<Chess> {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
         Objects.requireNonNull(chess, "chess board must be non null");
-        Vector movementVector = new Vector(destination.getI() - start.getI(), destination.getJ() - start.getJ());
-        for (Vector squareMovedThrough: movementVector.includedVectors()) {
-            if(chess.self().isAttacked(chess.self().getPieceAtPosition(start).getColor(), start.add(squareMovedThrough))){
+        return checkCondition(chess.indexOf(start), chess.indexOf(destination), chess);
+    }
+
+    /**
+     * Check if before or during a movement there is a check by square indexes
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param chess Concerned ChessBoard
+     * @return Either the condition is valid or not
+     */
+    @Override
+    public boolean checkCondition(int start, int destination, Board<Chess> chess) {
+        Objects.requireNonNull(chess, "chess board must be non null");
+        ChessColor color = chess.self().getPieceAtPosition(start).getColor();
+        if(chess.self().isAttacked(color, start)){
+            return false;
+        }
+        Position from = chess.getPosition(start), to = chess.getPosition(destination);
+        int di = to.getI() - from.getI(), dj = to.getJ() - from.getJ();
+        Geometry geometry = chess.getGeometry();
+        int stepIndex = geometry.getStepI(di, dj) + geometry.getStepJ(di, dj) * chess.getLENGTH();
+        int distance = geometry.getDistance(di, dj);
+        for (int step = 1, squareMovedThrough = start + stepIndex; step < distance; step++, squareMovedThrough += stepIndex) {
+            if(chess.self().isAttacked(color, squareMovedThrough)){
                 return false;
             }
         }
-        return !chess.self().isAttacked(chess.self().getPieceAtPosition(start).getColor(), destination);
+        return !chess.self().isAttacked(color, destination);
+    }
+
+    /**
+     * @return Always true
+     */
+    @Override
+    public boolean isIndependent() {
+        return true;
     }
 }
@@ -2,6 +2,8 @@ package engine.game.chess;
 
 import engine.game.board.Board;
 import engine.game.board.GameCondition;
+import engine.game.board.Geometry;
+import engine.game.board.Position;
 import engine.game.board.Vector;
 import java.util.Objects;
 
@@ -24,12 +26,47 @@ public class MustNotCollide implements GameCondition<Chess> {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
         Objects.requireNonNull(board, "chess board must be non null");
-        for (Vector positionOffset: destination.sub(start).includedVectors()) {
-            Vector coordinates = start.add(positionOffset);
-            if(board.getPieceAtPosition(coordinates) != null){
+        return checkCondition(board.indexOf(start), board.indexOf(destination), board);
+    }
+
+    /**
+     * Check if there is no collision between pieces by square indexes
+     * The squares in between are reached by adding the index of the unit step to the start index
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param board Concerned ChessBoard
+     * @return  Either the condition is valid or not
+     */
+    @Override
+    public boolean checkCondition(int start, int destination, Board<Chess> board) {
+        Objects.requireNonNull(board, "chess board must be non null");
+        Position from = board.getPosition(start), to = board.getPosition(destination);
+        int di = to.getI() - from.getI(), dj = to.getJ() - from.getJ();
+        Geometry geometry = board.getGeometry();
+        int stepIndex = geometry.getStepI(di, dj) + geometry.getStepJ(di, dj) * board.getLENGTH();
+        int distance = geometry.getDistance(di, dj);
+        for (int step = 1, square = start + stepIndex; step < distance; step++, square += stepIndex) {
+            if(board.getPieceAtPosition(square) != null){
                 return false;
             }
         }
         return true;
     }
+
+    /**
+     * Pieces can not pass over other pieces
+     * @return Always true
+     */
+    @Override
+    public boolean isBlockedByPieces() {
+        return true;
+    }
+
+    /**
+     * @return Always true
+     */
+    @Override
+    public boolean isIndependent() {
+        return true;
+    }
 }
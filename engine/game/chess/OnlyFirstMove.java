@@ -24,6 +24,28 @@ public class OnlyFirstMove implements GameCondition<Chess> {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
         Objects.requireNonNull(board, "chess board must be non null");
-        return !board.hasMoved(board.getPieceAtPosition(start));
+        return checkCondition(board.indexOf(start), board.indexOf(destination), board);
+    }
+
+    /**
+     * Check if the piece has not moved before by square indexes
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param board Concerned Board on which the action will be performed
+     * @return Either the condition is valid or not
+     */
+    @Override
+    public boolean checkCondition(int start, int destination, Board<Chess> board) {
+        Objects.requireNonNull(board, "chess board must be non null");
+        Chess.ChessPiece piece = board.self().getPieceAtPosition(start);
+        return piece != null && board.self().isOnFirstMove(piece, start);
+    }
+
+    /**
+     * @return Always true
+     */
+    @Override
+    public boolean isIndependent() {
+        return true;
     }
 }
@@ -0,0 +1,111 @@
+package engine.game.chess;
+
+import java.util.Arrays;
+
+/**
+ * Squares of the pieces of one color, updated when a piece is set or removed
+ * Adding, removing and looking up a square are O(1), the removed square being replaced by the last one
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+class PieceList {
+    private static final int NOT_LISTED = -1;
+
+    private final int[] squares;
+    private final int[] indexes;
+    private int size;
+
+    /**
+     * PieceList constructor
+     * @param nbSquares Number of squares of the board
+     */
+    PieceList(int nbSquares) {
+        squares = new int[nbSquares];
+        indexes = new int[nbSquares];
+        Arrays.fill(indexes, NOT_LISTED);
+    }
+
+    /**
+     * Add the square of a piece, nothing is done if it is already listed
+     * @param square Index of the square
+     */
+    void add(int square) {
+        if(indexes[square] != NOT_LISTED)
+            return;
+        indexes[square] = size;
+        squares[size++] = square;
+    }
+
+    /**
+     * Remove the square of a piece, nothing is done if it is not listed
+     * @param square Index of the square
+     */
+    void remove(int square) {
+        int index = indexes[square];
+        if(index == NOT_LISTED)
+            return;
+        int last = squares[--size];
+        squares[index] = last;
+        indexes[last] = index;
+        indexes[square] = NOT_LISTED;
+    }
+
+    /**
+     * Check if a square is listed
+     * @param square Index of the square
+     * @return Either the square holds a piece of the list or not
+     */
+    boolean contains(int square) {
+        return indexes[square] != NOT_LISTED;
+    }
+
+    /**
+     * Get a listed square
+     * @param index Index in the list
+     * @return Index of the square
+     */
+    int get(int index) {
+        if(index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size);
+        return squares[index];
+    }
+
+    /**
+     * Get a copy of the listed squares
+     * @return Indexes of the squares
+     */
+    int[] toArray() {
+        return Arrays.copyOf(squares, size);
+    }
+
+    /**
+     * Get the number of listed squares
+     * @return Number of pieces
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copy the squares of another list of the same size, in the same order
+     * @param other Copied list
+     */
+    void copyFrom(PieceList other) {
+        clear();
+        System.arraycopy(other.squares, 0, squares, 0, other.size);
+        for (int k = 0; k < other.size; k++) {
+            indexes[squares[k]] = k;
+        }
+        size = other.size;
+    }
+
+    /**
+     * Remove all squares
+     */
+    void clear() {
+        for (int k = 0; k < size; k++) {
+            indexes[squares[k]] = NOT_LISTED;
+        }
+        size = 0;
+    }
+}
@@ -26,10 +26,23 @@ public class Promote implements GameAction<Chess> {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
         Objects.requireNonNull(chess, "chess board must be non null");
+        return doAction(chess.indexOf(start), chess.indexOf(destination), chess);
+    }
+
+    /**
+     * Perform promotion by square indexes
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param chess Concerned Board on which the action will be performed
+     * @return Affected piece
+     */
+    @Override
+    public Piece<Chess> doAction(int start, int destination, Board<Chess> chess) {
+        Objects.requireNonNull(chess, "chess board must be non null");
 
         Chess.ChessPiece candidatePiece = chess.self().getPieceAtPosition(destination);
         Piece<Chess> affectedPiece = null;
-        if(destination.getJ() == candidatePiece.getColor().getPromotionRow()) {
+        if(chess.getPosition(destination).getJ() == candidatePiece.getColor().getPromotionRow(chess.self())) {
             Chess.ChessPiece piece = chess.self().getPromotedPiece();
             if(piece != null){
                 affectedPiece = chess.self().removePieceAtPosition(destination);
@@ -51,6 +64,19 @@ public class Promote implements GameAction<Chess> {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
         Objects.requireNonNull(chess, "chess board must be non null");
+        revertAction(chess.indexOf(start), chess.indexOf(destination), affectedPiece, chess);
+    }
+
+    /**
+     * Revert promotion by square indexes
+     * @param start Index of the square from where the action started
+     * @param destination Index of the square to where the action ended
+     * @param affectedPiece Affected pieces by the action
+     * @param chess Concerned Board on which the action will be performed
+     */
+    @Override
+    public void revertAction(int start, int destination, Piece<Chess> affectedPiece, Board<Chess> chess) {
+        Objects.requireNonNull(chess, "chess board must be non null");
 
         if(affectedPiece != null){
             chess.setPieceAtPosition(affectedPiece, destination);
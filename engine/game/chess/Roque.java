@@ -14,6 +14,7 @@ public class Roque extends MustNotCheck implements GameAction<Chess>, GameCondit
 
     private static final Set<Chess.ChessPieceType> CAN_ROQUE_WITH = EnumSet.of(
             Chess.ChessPieceType.ROOK);
+    private static final int ROQUE_DISTANCE = 2;
 
     /**
      * Perform roque
@@ -26,6 +27,19 @@ public class Roque extends MustNotCheck implements GameAction<Chess>, GameCondit
     public Piece<Chess> doAction(Vector start, Vector destination, Board<Chess> chess) {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
+        Objects.requireNonNull(chess, "chess board must be non null");
+        return doAction(chess.indexOf(start), chess.indexOf(destination), chess);
+    }
+
+    /**
+     * Perform roque by square indexes
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param chess Concerned Board on which the action will be performed
+     * @return Affected Pieces
+     */
+    @Override
+    public Piece<Chess> doAction(int start, int destination, Board<Chess> chess) {
         Objects.requireNonNull(chess, "chess board must be non null");
         movePiece(start, getPieceRoqueDestination(start, destination), chess);
         movePiece(getPieceRoqueWithPosition(start, destination, chess), getPieceRoqueWithDestination(start, destination, chess), chess);
@@ -43,6 +57,19 @@ public class Roque extends MustNotCheck implements GameAction<Chess>, GameCondit
     public void revertAction(Vector start, Vector destination, Piece<Chess> affectedPiece, Board<Chess> chess) {
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
+        Objects.requireNonNull(chess, "chess board must be non null");
+        revertAction(chess.indexOf(start), chess.indexOf(destination), affectedPiece, chess);
+    }
+
+    /**
+     * Revert roque by square indexes
+     * @param start Index of the square from where the action started
+     * @param destination Index of the square to where the action ended
+     * @param affectedPiece Affected pieces by the action
+     * @param chess Concerned Board on which the action will be performed
+     */
+    @Override
+    public void revertAction(int start, int destination, Piece<Chess> affectedPiece, Board<Chess> chess) {
         Objects.requireNonNull(chess, "chess board must be non null");
         movePiece(getPieceRoqueDestination(start, destination), start, chess);
         movePiece(getPieceRoqueWithDestination(start, destination, chess), getPieceRoqueWithPosition(start, destination, chess), chess);
@@ -50,39 +77,40 @@ public class Roque extends MustNotCheck implements GameAction<Chess>, GameCondit
 
     /**
      * Get the Rook with which roque
-     * @param start Vector from where the action started
-     * @param destination Vector to where the action ended
+     * @param start Index of the square from where the action started
+     * @param destination Index of the square to where the action ended
      * @param chess Concerned Board on which the action will be performed
-     * @return Roquing with Rook position
+     * @return Index of the square of the roquing with Rook
      */
-    private Vector getPieceRoqueWithPosition(Vector start, Vector destination, Board<Chess> chess){
-        return (destination.getI() < start.getI())
-                ? new Vector(0, start.getJ())
-                : new Vector(chess.self().getLENGTH() - 1, start.getJ());
+    private int getPieceRoqueWithPosition(int start, int destination, Board<Chess> chess){
+        Position from = chess.getPosition(start);
+        return (chess.getPosition(destination).getI() < from.getI())
+                ? chess.getPosition(0, from.getJ()).getIndex()
+                : chess.getPosition(chess.getLENGTH() - 1, from.getJ()).getIndex();
     }
 
     /**
-     * Get Rook destination
-     * @return Rook destination position
+     * Get King destination
+     * @param start Index of the square from where the action started
+     * @param destination Index of the square to where the action ended
+     * @return Index of the King destination square
      */
-    private Vector getPieceRoqueDestination(Vector start, Vector destination) {
-        return start.add(new Vector(destination.getI() - start.getI(), destination.getJ() - start.getJ()));
+    private int getPieceRoqueDestination(int start, int destination) {
+        return destination;
     }
 
     /**
-     * Get Rook destination
-     * @param start Vector from where the action started
-     * @param destination Vector to where the action ended
+     * Get Rook destination, the square next to the King on the side the Rook comes from
+     * @param start Index of the square from where the action started
+     * @param destination Index of the square to where the action ended
      * @param chess Concerned Board on which the action will be performed
-     * @return Rook destination position
+     * @return Index of the Rook destination square
      */
-    private Vector getPieceRoqueWithDestination(Vector start, Vector destination, Board<Chess> chess) {
-        Vector pieceRoqueVector = getPieceRoqueDestination(start, destination);
-        Vector pieceRoqueWithVector = getPieceRoqueWithPosition(start, destination, chess);
-
-        return  pieceRoqueWithVector.getI() < pieceRoqueVector.getI()
-                ? new Vector(pieceRoqueVector.getI() + 1, pieceRoqueVector.getJ())
-                : new Vector(pieceRoqueVector.getI() - 1, pieceRoqueVector.getJ());
+    private int getPieceRoqueWithDestination(int start, int destination, Board<Chess> chess) {
+        int pieceRoqueSquare = getPieceRoqueDestination(start, destination);
+        return getPieceRoqueWithPosition(start, destination, chess) < pieceRoqueSquare
+                ? pieceRoqueSquare + 1
+                : pieceRoqueSquare - 1;
     }
 
     /**
@@ -92,6 +120,16 @@ public class Roque extends MustNotCheck implements GameAction<Chess>, GameCondit
      * @param chess Concerned Board on which the action will be performed
      */
     protected void movePiece(Vector start, Vector destination, Board<Chess> chess) {
+        movePiece(chess.indexOf(start), chess.indexOf(destination), chess);
+    }
+
+    /**
+     * Move pieces concerned by Roque by square indexes
+     * @param start Index of the square from where the action started
+     * @param destination Index of the square to where the action ended
+     * @param chess Concerned Board on which the action will be performed
+     */
+    protected void movePiece(int start, int destination, Board<Chess> chess) {
         Piece<Chess> piece = chess.self().removePieceAtPosition(start);
         chess.self().setPieceAtPosition(piece, destination);
     }
@@ -108,6 +146,19 @@ public class Roque extends MustNotCheck implements GameAction<Chess>, GameCondit
         Objects.requireNonNull(start, "start vector must be non null");
         Objects.requireNonNull(destination, "destination vector must be non null");
         Objects.requireNonNull(chess, "chess board must be non null");
+        return checkCondition(chess.indexOf(start), chess.indexOf(destination), chess);
+    }
+
+    /**
+     * Check if all conditions for a Roque are valid by square indexes
+     * @param start Index of the square from where the action starts
+     * @param destination Index of the square to where the action ends
+     * @param chess Concerned ChessBoard
+     * @return Either the condition is valid or not
+     */
+    @Override
+    public boolean checkCondition(int start, int destination, Board<Chess> chess) {
+        Objects.requireNonNull(chess, "chess board must be non null");
 
         Chess.ChessPiece pieceOnStart = chess.self().getPieceAtPosition(start);
         if(pieceOnStart == null)
@@ -115,25 +166,31 @@ public class Roque extends MustNotCheck implements GameAction<Chess>, GameCondit
 
         Chess.ChessPiece pieceOnDestination = chess.self().getPieceAtPosition(getPieceRoqueWithPosition(start, destination, chess));
 
-        Vector legitVector = new Vector(2, 0);
-        Vector movementVector = new Vector(destination.getI() - start.getI(), destination.getJ() - start.getJ());
+        Position from = chess.getPosition(start), to = chess.getPosition(destination);
+        int di = to.getI() - from.getI(), dj = to.getJ() - from.getJ();
 
-        int begin = movementVector.getI() < 0 ? 1 : start.getI() + 1;
-        int end = movementVector.getI() < 0 ? start.getI() - 1 : chess.self().getLENGTH() - 1;
+        int begin = di < 0 ? 1 : from.getI() + 1;
+        int end = di < 0 ? from.getI() - 1 : chess.self().getLENGTH() - 1;
 
         // Check for Piece between the piece who Roque and the piece we're roquing with
         for(int i = begin; i < end; ++i) {
-            if(chess.self().getPieceAtPosition(new Vector(i, start.getJ())) != null){
+            if(chess.getPieceAtPosition(i, from.getJ()) != null){
                 return false;
             }
         }
 
         return  pieceOnDestination != null
                 && CAN_ROQUE_WITH.contains(pieceOnDestination.getPieceType())
-                && legitVector.areCollinear(movementVector)
-                && legitVector.norm() == movementVector.norm()
-                && !chess.self().hasMoved(pieceOnStart)
-                && !chess.self().hasMoved(pieceOnDestination)
+                && dj == 0 && Math.abs(di) == ROQUE_DISTANCE
+                && chess.self().hasCastlingRight(pieceOnStart.getColor(), di > 0)
                 && super.checkCondition(start, destination, chess);
     }
-}
\ No newline at end of file
+
+    /**
+     * @return Always true, the condition checks the piece on the start square and the castling rights itself
+     */
+    @Override
+    public boolean isIndependent() {
+        return true;
+    }
+}
@@ -0,0 +1,98 @@
+package engine.game.chess;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Random keys of a chess board geometry, xored together to hash a position
+ * A key is drawn for each piece type and color on each square, each set of castling rights,
+ * each en passant target square and the second color to play
+ * The keys are drawn from a fixed seed so that a position has the same hash in every game
+ * Keys are drawn once per number of squares and shared by all chess of that size
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+final class Zobrist {
+    private static final Map<Integer, Zobrist> KEYS = new ConcurrentHashMap<>();
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final int NB_CASTLING_RIGHTS = 1 << 2 * 2;
+
+    private final int nbSquares;
+    private final long[] pieces;
+    private final long[] castlings;
+    private final long[] enPassants;
+    private final long side;
+
+    /**
+     * Get the keys of a number of squares
+     * @param nbSquares Number of squares of the board
+     * @return Shared keys
+     */
+    static Zobrist of(int nbSquares) {
+        if(nbSquares <= 0)
+            throw new IllegalArgumentException("Number of squares must be above 0");
+        return KEYS.computeIfAbsent(nbSquares, Zobrist::new);
+    }
+
+    /**
+     * Zobrist constructor
+     * @param nbSquares Number of squares of the board
+     */
+    private Zobrist(int nbSquares) {
+        this.nbSquares = nbSquares;
+        SplittableRandom random = new SplittableRandom(SEED);
+        pieces = new long[Chess.ChessPieceType.values().length * ChessColor.values().length * nbSquares];
+        for (int k = 0; k < pieces.length; k++) {
+            pieces[k] = random.nextLong();
+        }
+        // No right and no en passant square hash to 0, so that they leave the key unchanged
+        castlings = new long[NB_CASTLING_RIGHTS];
+        for (int k = 1; k < castlings.length; k++) {
+            castlings[k] = random.nextLong();
+        }
+        enPassants = new long[nbSquares];
+        for (int k = 0; k < enPassants.length; k++) {
+            enPassants[k] = random.nextLong();
+        }
+        side = random.nextLong();
+    }
+
+    /**
+     * Get the key of a piece on a square
+     * @param type Type of the piece
+     * @param color Color of the piece
+     * @param square Index of the square
+     * @return Key of the piece
+     */
+    long piece(Chess.ChessPieceType type, ChessColor color, int square) {
+        return pieces[(type.ordinal() * ChessColor.values().length + color.ordinal()) * nbSquares + square];
+    }
+
+    /**
+     * Get the key of a set of castling rights
+     * @param castlingRights Castling rights, one bit per color and side
+     * @return Key of the rights
+     */
+    long castling(int castlingRights) {
+        return castlings[castlingRights];
+    }
+
+    /**
+     * Get the key of an en passant target square
+     * @param square Index of the square, negative if there is none
+     * @return Key of the square
+     */
+    long enPassant(int square) {
+        return square < 0 ? 0 : enPassants[square];
+    }
+
+    /**
+     * Get the key of a color to play
+     * @param color Color to play
+     * @return Key of the color, 0 for the first color
+     */
+    long side(ChessColor color) {
+        return color.ordinal() == 0 ? 0 : side;
+    }
+}
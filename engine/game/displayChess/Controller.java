@@ -2,6 +2,7 @@ package engine.game.displayChess;
 
 import chess.ChessController;
 import chess.ChessView;
+import chess.PieceType;
 import chess.views.console.ConsoleView;
 import chess.views.gui.GUIView;
 
@@ -57,6 +58,36 @@ public class Controller implements ChessController {
         return false;
     }
 
+    /**
+     * Move a piece, promoting it to the type chosen by the user
+     * @param fromX Start X value
+     * @param fromY  Start Y value
+     * @param toX Destination X value
+     * @param toY Destination Y value
+     * @param promotion Chosen type, null for the default one
+     * @return Either the piece can move or not
+     */
+    @Override
+    public boolean move(int fromX, int fromY, int toX, int toY, PieceType promotion) {
+        if(fromX != toX || fromY != toY){
+            return chess.move(fromX, fromY, toX, toY, promotion);
+        }
+        return false;
+    }
+
+    /**
+     * Check if a move promotes a Pawn, so that the view asks for the chosen type before moving
+     * @param fromX Start X value
+     * @param fromY  Start Y value
+     * @param toX Destination X value
+     * @param toY Destination Y value
+     * @return Either the move is a promotion or not
+     */
+    @Override
+    public boolean isPromotion(int fromX, int fromY, int toX, int toY) {
+        return chess.isPromotion(fromX, fromY, toX, toY);
+    }
+
     /**
      * Start a new game
      */
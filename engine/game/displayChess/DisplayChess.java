@@ -2,27 +2,36 @@ package engine.game.displayChess;
 
 import chess.PieceType;
 import chess.PlayerColor;
-import engine.game.board.Move;
 import engine.game.board.Piece;
-import engine.game.board.Vector;
+import engine.game.board.Position;
 import engine.game.chess.Chess;
 import engine.game.chess.ChessColor;
+import engine.game.chess.ChessEvent;
 
+import java.util.BitSet;
+import java.util.List;
 import java.util.Objects;
 
 /**
  * Synchronize GUI with the engine
+ * Modified squares are only marked as dirty, the view being sent the difference with what it displays once a move is
+ * played, so that moves simulated by the engine and reverted never reach the view
+ * The view is updated and the messages displayed by a listener of the committed events of the game
  * @author Alen Bijelic
  * @author Nelson Jeanrenaud
  */
 public class DisplayChess extends Chess {
+    // Pieces whose moves are kept between the status evaluation and the moves of the player
+    private static final int MOVE_CACHE_CAPACITY = 256;
+
     private final Controller controller;
 
-    boolean areGUIPromptsDisable() {
-        return guiPromptsDisabled;
-    }
+    // Pieces displayed by the view and squares modified since the view was last updated
+    private final ChessPiece[] displayed;
+    private final BitSet dirtySquares;
 
-    private boolean guiPromptsDisabled;
+    // Every square is sent on the next update, the view being cleared for a new game
+    private boolean isRedrawRequested;
 
     /**
      * DisplayChess constructor
@@ -31,111 +40,129 @@ public class DisplayChess extends Chess {
     public DisplayChess(Controller controller) {
         super();
         this.controller = Objects.requireNonNull(controller, "controller must be non null");
-        guiPromptsDisabled = false;
+        displayed = new ChessPiece[getLENGTH() * getHEIGHT()];
+        dirtySquares = new BitSet(displayed.length);
+        setAttackMapEnabled(true);
+        setMoveCacheCapacity(MOVE_CACHE_CAPACITY);
+        addListener(this::display);
     }
 
     /**
-     * Init rules
+     * Move a piece
+     * @param fromX Start X value
+     * @param fromY  Start Y value
+     * @param toX Destination X value
+     * @param toY Destination Y value
+     * @return Either the piece can move or not
      */
-    @Override
-    protected void initRules() {
-        super.initRules();
+    public boolean move(int fromX, int fromY, int toX, int toY) {
+        return move(getPosition(fromX, fromY), getPosition(toX, toY));
     }
 
     /**
-     * Move a piece
+     * Move a piece, promoting it to the type chosen by the user if the move is a promotion
      * @param fromX Start X value
      * @param fromY  Start Y value
      * @param toX Destination X value
      * @param toY Destination Y value
+     * @param promotion Chosen type, null for the default one
      * @return Either the piece can move or not
      */
-    public boolean move(int fromX, int fromY, int toX, int toY) {
-        return move(new Vector(fromX, fromY), new Vector(toX, toY));
+    public boolean move(int fromX, int fromY, int toX, int toY, PieceType promotion) {
+        return move(indexOf(getPosition(fromX, fromY)), indexOf(getPosition(toX, toY)),
+                promotion == null ? null : getChessPieceType(promotion));
     }
 
     /**
-     * Check if the King is in check
-     * @param defendingColor Concerned color
-     * @return Either the King is in check or not
+     * Check if a move can be played and promotes a Pawn
+     * @param fromX Start X value
+     * @param fromY  Start Y value
+     * @param toX Destination X value
+     * @param toY Destination Y value
+     * @return Either the move is a promotion or not
      */
-    @Override
-    public boolean check(ChessColor defendingColor) {
-        if(super.check(defendingColor)){
-            displayCheck();
-            return true;
-        }
-        return false;
+    public boolean isPromotion(int fromX, int fromY, int toX, int toY) {
+        return isPromotion(indexOf(getPosition(fromX, fromY)), indexOf(getPosition(toX, toY)));
     }
 
     /**
-     * Display winner
-     * @param winner Winner color
+     * Display the committed events of the game
+     * @param events Events in the order they happened
      */
-    @Override
-    protected void endGame(ChessColor winner) {
-        super.endGame(winner);
-        displayWinner(winner);
+    private void display(List<ChessEvent> events) {
+        for (ChessEvent event : events) {
+            switch (event.getType()) {
+                case GAME_STARTED:
+                case MOVE_PLAYED:
+                    flushView();
+                    break;
+                case CHECK:
+                    displayCheck();
+                    break;
+                case GAME_OVER:
+                    if(event.getColor() == null)
+                        displayDraw();
+                    else
+                        displayWinner(event.getColor());
+                    break;
+            }
+        }
     }
 
     /**
-     * Set piece to a given position
-     * @param piece Piece to set at given position
-     * @param position Position to set the piece
+     * Set piece to a given square
+     * @param piece Piece to set at given square
+     * @param square Index of the square to set the piece
      * @return The moved piece
      */
     @Override
-    public ChessPiece setPieceAtPosition(Piece<Chess> piece, Vector position) {
-        super.setPieceAtPosition(piece, position);
-        if(piece != null)
-            controller.getView().putPiece(getPieceType(((ChessPiece)piece).getPieceType()), getPlayerColor(((ChessPiece)piece).getColor()), position.getI(), position.getJ());
-        return (ChessPiece)piece;
+    public ChessPiece setPieceAtPosition(Piece<Chess> piece, int square) {
+        ChessPiece chessPiece = super.setPieceAtPosition(piece, square);
+        dirtySquares.set(square);
+        return chessPiece;
     }
 
     /**
-     * Remove piece at a given position
-     * @param position Position to remove the piece
+     * Remove piece at a given square
+     * @param square Index of the square to remove the piece
      * @return The removed piece
      */
     @Override
-    public ChessPiece removePieceAtPosition(Vector position) {
-        Objects.requireNonNull(position, "position must be non null");
-        ChessPiece piece = super.removePieceAtPosition(position);
-        controller.getView().removePiece(position.getI(), position.getJ());
+    public ChessPiece removePieceAtPosition(int square) {
+        ChessPiece piece = super.removePieceAtPosition(square);
+        dirtySquares.set(square);
         return piece;
     }
 
-    @Override
-    public boolean doesMoveCheck(ChessPiece piece, Vector start, Vector destination, Move<Chess> moveType) {
-        guiPromptsDisabled = true;
-        boolean status = super.doesMoveCheck(piece, start, destination, moveType);
-        guiPromptsDisabled = false;
-        return status;
-    }
-
     /**
-     * Get promoted piece
-     * @return Engine promoted piece
+     * Remove all pieces of the board
      */
-    public Chess.ChessPiece getPromotedPiece() {
-        if(!areGUIPromptsDisable())
-            return askUserPromotion();
-        return super.getPromotedPiece();
+    @Override
+    public void emptyBoard() {
+        super.emptyBoard();
+        dirtySquares.set(0, displayed.length);
+        isRedrawRequested = true;
     }
 
     /**
-     * Ask user to which Piece does he want to promote his pawn
-     * @return Promoted piece
+     * Update the view on the dirty squares whose piece differs from the displayed one, or on every square after the
+     * board has been emptied, as the view may have been cleared without the engine knowing it
+     * Pieces are shared per type and color, so comparing references is enough
      */
-    private ChessPiece askUserPromotion() {
-        Piece[] possibilities = {
-                new Queen(getTurn(), this),
-                new Knight(getTurn(), this),
-                new Rook(getTurn(), this),
-                new Bishop(getTurn(), this)
-        };
-
-        return (ChessPiece) controller.getView().askUser("You can promote your piece !", "In what will your piece promote to ?", possibilities);
+    private void flushView() {
+        for (int square = dirtySquares.nextSetBit(0); square >= 0; square = dirtySquares.nextSetBit(square + 1)) {
+            ChessPiece piece = getPieceAtPosition(square);
+            if(!isRedrawRequested && piece == displayed[square])
+                continue;
+            Position position = getPosition(square);
+            if(piece == null)
+                controller.getView().removePiece(position.getI(), position.getJ());
+            else
+                controller.getView().putPiece(getPieceType(piece.getPieceType()), getPlayerColor(piece.getColor()), position.getI(), position.getJ());
+            displayed[square] = piece;
+        }
+        dirtySquares.clear();
+        isRedrawRequested = false;
     }
 
     /**
@@ -152,6 +179,13 @@ public class DisplayChess extends Chess {
         controller.getView().displayMessage("Checkmate ! " + Objects.requireNonNull(winner, "winner must be non null") + " won the game !");
     }
 
+    /**
+     * Display draw when stalemate
+     */
+    protected void displayDraw() {
+        controller.getView().displayMessage("Stalemate ! The game is a draw !");
+    }
+
     /**
      * Get the player color
      * @param color Chess color
@@ -189,4 +223,27 @@ public class DisplayChess extends Chess {
         }
         throw new IllegalArgumentException(type + " is not handled by GUI");
     }
+
+    /**
+     * Get engine piece type
+     * @param type Enum Piece type
+     * @return Engine piece type
+     */
+    private ChessPieceType getChessPieceType(PieceType type){
+        switch (Objects.requireNonNull(type, "type must be non null")) {
+            case PAWN:
+                return ChessPieceType.PAWN;
+            case ROOK:
+                return ChessPieceType.ROOK;
+            case KNIGHT:
+                return ChessPieceType.KNIGHT;
+            case BISHOP:
+                return ChessPieceType.BISHOP;
+            case QUEEN:
+                return ChessPieceType.QUEEN;
+            case KING:
+                return ChessPieceType.KING;
+        }
+        throw new IllegalArgumentException(type + " is not handled by the engine");
+    }
 }
@@ -0,0 +1,186 @@
+package engine.game.chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Regression test of the event delivery : order of the events, batches, listeners removing themselves or failing and
+ * batches delivered by a pool of threads
+ * Run from the compiled engine and test classes, an AssertionError reporting the first failure
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+public class EventDispatcherTest {
+    private static final int SIZE = 8;
+
+    // Fool's mate, then a check given by the Queen
+    private static final String[] FOOLS_MATE = {"f2f3", "e7e5", "g2g4", "d8h4"};
+    private static final String[] CHECK = {"e2e4", "f7f6", "d1h5"};
+
+    /**
+     * Get the index of a square in algebraic notation
+     * @param square Square, as e2
+     * @return Index of the square
+     */
+    private static int square(String square) {
+        return square.charAt(0) - 'a' + (square.charAt(1) - '1') * SIZE;
+    }
+
+    /**
+     * Play moves in algebraic notation
+     * @param chess Chess
+     * @param moves Moves, as e2e4
+     */
+    private static void play(Chess chess, String... moves) {
+        for (String move : moves) {
+            if(!chess.move(square(move.substring(0, 2)), square(move.substring(2))))
+                throw new AssertionError("Move refused : " + move);
+        }
+    }
+
+    /**
+     * Check the types of received events
+     * @param events Received events
+     * @param expected Expected types
+     */
+    private static void checkTypes(List<ChessEvent> events, ChessEvent.Type... expected) {
+        List<ChessEvent.Type> types = new ArrayList<>();
+        for (ChessEvent event : events) {
+            types.add(event.getType());
+        }
+        if(!types.equals(List.of(expected)))
+            throw new AssertionError("Received " + types + " instead of " + List.of(expected));
+    }
+
+    /**
+     * A move is published after its turn ended, before the check it gives
+     */
+    private static void checkOrder() {
+        Chess chess = new Chess();
+        List<ChessEvent> events = new ArrayList<>();
+        chess.addListener(batch -> {
+            for (ChessEvent event : batch) {
+                if(event.getType() == ChessEvent.Type.MOVE_PLAYED && chess.getTurn() == event.getColor())
+                    throw new AssertionError("Move published before the end of its turn");
+            }
+            events.addAll(batch);
+        });
+        chess.startGame();
+        play(chess, CHECK);
+        checkTypes(events, ChessEvent.Type.GAME_STARTED, ChessEvent.Type.MOVE_PLAYED, ChessEvent.Type.MOVE_PLAYED,
+                ChessEvent.Type.MOVE_PLAYED, ChessEvent.Type.CHECK);
+    }
+
+    /**
+     * Batches are delivered once full, and every pending batch at the end of the game
+     */
+    private static void checkBatches() {
+        Chess chess = new Chess();
+        List<Integer> sizes = new ArrayList<>();
+        chess.addListener(batch -> sizes.add(batch.size()), EventDispatcher.DIRECT, 2);
+        chess.startGame();
+        play(chess, FOOLS_MATE);
+        // Started, 4 moves and the end of the game
+        if(!sizes.equals(List.of(2, 2, 2)))
+            throw new AssertionError("Batches of " + sizes);
+
+        chess.startGame();
+        play(chess, "e2e4");
+        if(sizes.size() != 4)
+            throw new AssertionError("Full batch not delivered");
+        play(chess, "e7e5");
+        chess.flushEvents();
+        if(!sizes.equals(List.of(2, 2, 2, 2, 1)))
+            throw new AssertionError("Flushed batches of " + sizes);
+    }
+
+    /**
+     * A listener removing itself, or failing, neither skips the next listener nor stops the game
+     */
+    private static void checkFaultyListeners() {
+        Chess chess = new Chess();
+        AtomicInteger reported = new AtomicInteger();
+        Thread thread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        thread.setUncaughtExceptionHandler((t, e) -> reported.incrementAndGet());
+        try {
+            List<ChessEvent> events = new ArrayList<>();
+            chess.addListener(new ChessListener() {
+                @Override
+                public void onEvents(List<ChessEvent> batch) {
+                    chess.removeListener(this);
+                }
+            });
+            chess.addListener(batch -> {
+                throw new IllegalStateException("listener failure");
+            });
+            chess.addListener(events::addAll);
+            chess.startGame();
+            play(chess, FOOLS_MATE);
+            checkTypes(events, ChessEvent.Type.GAME_STARTED, ChessEvent.Type.MOVE_PLAYED, ChessEvent.Type.MOVE_PLAYED,
+                    ChessEvent.Type.MOVE_PLAYED, ChessEvent.Type.MOVE_PLAYED, ChessEvent.Type.GAME_OVER);
+            if(reported.get() != events.size())
+                throw new AssertionError(reported.get() + " failures reported instead of " + events.size());
+            if(chess.getStatus() != GameStatus.CHECKMATE || chess.getTurn() != ChessColor.WHITE)
+                throw new AssertionError("Game not ended by the failing listener");
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+    }
+
+    /**
+     * Batches handed to a pool of threads are delivered one at a time and in order
+     * @throws InterruptedException If interrupted while waiting for the pool
+     */
+    private static void checkPool() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        Chess chess = new Chess();
+        List<ChessEvent> events = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        CountDownLatch isOver = new CountDownLatch(1);
+        chess.addListener(batch -> {
+            if(running.incrementAndGet() != 1)
+                throw new AssertionError("Batches delivered at the same time");
+            Thread.yield();
+            synchronized (events) {
+                events.addAll(batch);
+            }
+            running.decrementAndGet();
+            if(batch.get(0).getType() == ChessEvent.Type.GAME_OVER)
+                isOver.countDown();
+        }, pool, 1);
+        chess.startGame();
+        play(chess, FOOLS_MATE);
+        boolean isDelivered = isOver.await(10, TimeUnit.SECONDS);
+        pool.shutdown();
+        if(!isDelivered)
+            throw new AssertionError("Deliveries not finished");
+        synchronized (events) {
+            checkTypes(events, ChessEvent.Type.GAME_STARTED, ChessEvent.Type.MOVE_PLAYED,
+                    ChessEvent.Type.MOVE_PLAYED, ChessEvent.Type.MOVE_PLAYED, ChessEvent.Type.MOVE_PLAYED,
+                    ChessEvent.Type.GAME_OVER);
+            for (int k = 1; k < 5; k++) {
+                if(events.get(k).getFrom() != square(FOOLS_MATE[k - 1].substring(0, 2)))
+                    throw new AssertionError("Moves delivered out of order : " + events);
+            }
+        }
+    }
+
+    /**
+     * Run the test
+     * @param args Not used
+     * @throws InterruptedException If interrupted while waiting for the pool
+     */
+    public static void main(String[] args) throws InterruptedException {
+        checkOrder();
+        checkBatches();
+        checkFaultyListeners();
+        checkPool();
+        System.out.println("events ok");
+    }
+}
@@ -0,0 +1,120 @@
+package engine.game.chess;
+
+import engine.game.board.MoveList;
+import engine.game.board.PackedMove;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+/**
+ * Regression test of the reverted moves : random games are played, then reverted move by move through the historic,
+ * each reverted position having to be the one before the move, castling rights, en passant square, halfmove clock and
+ * hash key included, and the attack map having to match the pieces
+ * Run from the compiled engine and test classes, an AssertionError reporting the first wrong position
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+public class MakeUnmakeTest {
+    private static final long SEED = 13;
+    private static final int NB_GAMES = 60;
+    private static final int MAX_PLIES = 160;
+
+    /**
+     * Chess whose moves can be reverted
+     */
+    private static class RevertibleChess extends Chess {
+        /**
+         * Revert the last move through the historic, the turn staying to the color that played it
+         */
+        private void revertLastMove() {
+            historicMoves.revertLastMove();
+        }
+    }
+
+    /**
+     * Describe the position of a chess, the color to play excepted
+     * @param chess Chess
+     * @return Description of the position
+     */
+    private static String describe(Chess chess) {
+        StringBuilder description = new StringBuilder();
+        for (int square = 0; square < chess.getLENGTH() * chess.getHEIGHT(); square++) {
+            Chess.ChessPiece piece = chess.getPieceAtPosition(square);
+            description.append(piece == null ? "-" : piece.getColor() + " " + piece.getPieceType()).append(',');
+        }
+        for (ChessColor color : ChessColor.values()) {
+            description.append(" king ").append(chess.getKingSquare(color))
+                    .append(" pieces ").append(chess.searchPieces(color).size())
+                    .append(" castling ").append(chess.hasCastlingRight(color, true))
+                    .append(' ').append(chess.hasCastlingRight(color, false));
+        }
+        description.append(" en passant ").append(chess.getEnPassantSquare())
+                .append(" halfmove ").append(chess.getHalfmoveClock());
+        // The key of the color to play is taken out, a raw revert keeping the turn
+        long key = chess.getPositionKey() ^ Zobrist.of(chess.getLENGTH() * chess.getHEIGHT()).side(chess.getTurn());
+        description.append(" key ").append(Long.toHexString(key));
+        return description.toString();
+    }
+
+    /**
+     * Check that the attack map counts the attackers found from the pieces, on every square for both colors
+     * @param chess Chess with the attack map enabled
+     */
+    private static void checkAttackMap(Chess chess) {
+        for (ChessColor color : ChessColor.values()) {
+            for (int square = 0; square < chess.getLENGTH() * chess.getHEIGHT(); square++) {
+                int expected = chess.getAttacks().countAttackers(chess.getBitBoard(), square, color.next());
+                if(chess.countAttackers(color, square) != expected)
+                    throw new AssertionError("Attack map counts " + chess.countAttackers(color, square)
+                            + " attackers of " + color + " on " + square + " instead of " + expected);
+            }
+        }
+    }
+
+    /**
+     * Play random games and revert them
+     * @param isAttackMapEnabled Either the attack map is maintained or not
+     */
+    private static void checkRoundTrips(boolean isAttackMapEnabled) {
+        Random random = new Random(SEED);
+        MoveList moves = new MoveList();
+        for (int game = 0; game < NB_GAMES; game++) {
+            RevertibleChess chess = new RevertibleChess();
+            chess.setAttackMapEnabled(isAttackMapEnabled);
+            chess.startGame();
+            Deque<String> positions = new ArrayDeque<>();
+            Deque<Integer> played = new ArrayDeque<>();
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                moves.clear();
+                if(chess.generateMoves(chess.getTurn(), moves) == 0)
+                    break;
+                int move = moves.get(random.nextInt(moves.size()));
+                positions.push(describe(chess));
+                played.push(move);
+                if(!chess.playMove(move))
+                    throw new AssertionError("Generated move refused : " + PackedMove.toString(move));
+            }
+            while (!positions.isEmpty()) {
+                chess.revertLastMove();
+                String expected = positions.pop(), reverted = describe(chess);
+                int move = played.pop();
+                if(!expected.equals(reverted))
+                    throw new AssertionError("Game " + game + ", " + PackedMove.toString(move) + " reverted to\n"
+                            + reverted + "\ninstead of\n" + expected);
+                if(isAttackMapEnabled)
+                    checkAttackMap(chess);
+            }
+        }
+    }
+
+    /**
+     * Run the test
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        checkRoundTrips(false);
+        checkRoundTrips(true);
+        System.out.println("make unmake ok");
+    }
+}
@@ -0,0 +1,106 @@
+package engine.game.chess;
+
+import engine.game.board.MoveList;
+
+import java.util.Arrays;
+
+/**
+ * Regression test of the move cache : eviction of the least recently used entry, detection of the positions sharing a
+ * hash key and counters of the lookups, in the cache alone and through a chess
+ * Run from the compiled engine and test classes, an AssertionError reporting the first failure
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+public class MoveCacheTest {
+    private static final int NB_PIECES = 16;
+
+    /**
+     * Check the counters of a cache
+     * @param cache Move cache
+     * @param hits Expected hits
+     * @param misses Expected misses
+     * @param collisions Expected collisions
+     */
+    private static void checkCounters(MoveCache cache, long hits, long misses, long collisions) {
+        if(cache.getHits() != hits || cache.getMisses() != misses || cache.getCollisions() != collisions)
+            throw new AssertionError(cache.getHits() + " hits, " + cache.getMisses() + " misses and "
+                    + cache.getCollisions() + " collisions instead of " + hits + ", " + misses + " and " + collisions);
+    }
+
+    /**
+     * The least recently used entry is evicted, a lookup making an entry the most recently used one
+     */
+    private static void checkEviction() {
+        MoveCache cache = new MoveCache(2);
+        int[] a = {1}, b = {2}, c = {3};
+        cache.put(1, 0, 0, 0, a);
+        cache.put(2, 0, 0, 0, b);
+        if(cache.get(1, 0, 0, 0) != a)
+            throw new AssertionError("Cached moves not found");
+        cache.put(3, 0, 0, 0, c);
+        if(cache.get(2, 0, 0, 0) != null)
+            throw new AssertionError("Least recently used entry not evicted");
+        if(cache.get(1, 0, 0, 0) != a || cache.get(3, 0, 0, 0) != c)
+            throw new AssertionError("Recently used entry evicted");
+        // The square is part of the key
+        if(cache.get(1, 1, 0, 0) != null)
+            throw new AssertionError("Moves of another square found");
+        checkCounters(cache, 3, 2, 0);
+    }
+
+    /**
+     * Another position of the same key is a miss counted as a collision, and replaces the entry once put
+     */
+    private static void checkCollisions() {
+        MoveCache cache = new MoveCache(4);
+        int[] moves = {1}, other = {2};
+        cache.put(1, 0, 5, 7, moves);
+        if(cache.get(1, 0, 6, 7) != null || cache.get(1, 0, 5, 8) != null)
+            throw new AssertionError("Moves of another position of the same key found");
+        checkCounters(cache, 0, 2, 2);
+        cache.put(1, 0, 6, 7, other);
+        if(cache.get(1, 0, 6, 7) != other || cache.get(1, 0, 5, 7) != null)
+            throw new AssertionError("Entry of the same key not replaced");
+        checkCounters(cache, 1, 3, 3);
+
+        try {
+            new MoveCache(0);
+            throw new AssertionError("Cache without capacity created");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    /**
+     * A chess only fills its cache when the moves are listed, not when the status of a turn is evaluated
+     */
+    private static void checkChess() {
+        Chess chess = new Chess();
+        chess.setMoveCacheCapacity(NB_PIECES);
+        chess.startGame();
+        if(chess.getMoveCacheHits() != 0 || chess.getMoveCacheMisses() != 0)
+            throw new AssertionError("Cache used by the status of the turn");
+
+        MoveList first = new MoveList(), second = new MoveList();
+        chess.generateMoves(chess.getTurn(), first);
+        chess.generateMoves(chess.getTurn(), second);
+        if(chess.getMoveCacheMisses() != NB_PIECES || chess.getMoveCacheHits() != NB_PIECES)
+            throw new AssertionError(chess.getMoveCacheHits() + " hits and " + chess.getMoveCacheMisses()
+                    + " misses instead of " + NB_PIECES);
+        if(!Arrays.equals(first.toArray(), second.toArray()))
+            throw new AssertionError("Cached moves differ from the generated ones");
+        if(chess.getMoveCacheCollisions() != 0)
+            throw new AssertionError("Collision in a single position");
+    }
+
+    /**
+     * Run the test
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        checkEviction();
+        checkCollisions();
+        checkChess();
+        System.out.println("move cache ok");
+    }
+}
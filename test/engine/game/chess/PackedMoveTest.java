@@ -0,0 +1,77 @@
+package engine.game.chess;
+
+import engine.game.board.MoveList;
+import engine.game.board.PackedMove;
+
+/**
+ * Regression test of the encoded moves that were not generated : a move carrying the rule of another piece or of
+ * another move must neither be legal by mistake nor corrupt the position once played
+ * Run from the compiled engine and test classes, an AssertionError reporting the first failure
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+public class PackedMoveTest {
+    private static final int SIZE = 8;
+
+    /**
+     * Get the index of a square in algebraic notation
+     * @param square Square, as e2
+     * @return Index of the square
+     */
+    private static int square(String square) {
+        return square.charAt(0) - 'a' + (square.charAt(1) - '1') * SIZE;
+    }
+
+    /**
+     * Get the rule of a generated move
+     * @param chess Chess
+     * @param from Start square, as e2
+     * @param to Destination square, as e4
+     * @return Id of the rule the move was generated with
+     */
+    private static int rule(Chess chess, String from, String to) {
+        MoveList moves = new MoveList();
+        chess.generateMoves(chess.getTurn(), moves);
+        for (int k = 0; k < moves.size(); k++) {
+            if(PackedMove.getFrom(moves.get(k)) == square(from) && PackedMove.getTo(moves.get(k)) == square(to))
+                return PackedMove.getRule(moves.get(k));
+        }
+        throw new AssertionError(from + to + " not generated");
+    }
+
+    /**
+     * A Pawn carrying the rule of a Knight can not jump like one
+     */
+    private static void checkRuleOfAnotherPiece() {
+        Chess chess = new Chess();
+        chess.startGame();
+        int jump = PackedMove.of(square("e2"), square("f4"), rule(chess, "g1", "f3"));
+        if(chess.isLegal(jump) || chess.playMove(jump))
+            throw new AssertionError("Pawn moved with the rule of a Knight");
+        if(chess.getPieceAtPosition(square("e2")) == null || chess.getTurn() != ChessColor.WHITE)
+            throw new AssertionError("Refused move changed the position");
+    }
+
+    /**
+     * A single step carrying the rule of the double step gives no en passant square
+     */
+    private static void checkSingleStepAsDoubleStep() {
+        Chess chess = new Chess();
+        chess.startGame();
+        int step = PackedMove.of(square("e2"), square("e3"), rule(chess, "e2", "e4"));
+        if(!chess.playMove(step))
+            throw new AssertionError("Single step refused");
+        if(chess.getEnPassantSquare() != -1)
+            throw new AssertionError("En passant square " + chess.getEnPassantSquare() + " after a single step");
+    }
+
+    /**
+     * Run the test
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        checkRuleOfAnotherPiece();
+        checkSingleStepAsDoubleStep();
+        System.out.println("packed moves ok");
+    }
+}
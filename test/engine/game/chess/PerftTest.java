@@ -0,0 +1,131 @@
+package engine.game.chess;
+
+import engine.game.board.MoveList;
+import engine.game.board.PackedMove;
+
+/**
+ * Regression test of the move generator : counts the leaves of the move tree of reference positions to a given depth
+ * and compares them to the published counts, with the move cache and the attack map disabled and enabled
+ * Run from the compiled engine and test classes, an AssertionError reporting the first wrong count
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+public class PerftTest {
+    private static final int MOVE_CACHE_CAPACITY = 256;
+
+    // Piece placements in Forsyth-Edwards notation, White to play and castling rights given by the Kings and Rooks
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR";
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R";
+    private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8";
+
+    /**
+     * Chess starting from a given piece placement
+     */
+    private static class PositionChess extends Chess {
+        private final String placement;
+
+        /**
+         * PositionChess constructor
+         * @param placement Piece placement in Forsyth-Edwards notation
+         */
+        private PositionChess(String placement) {
+            this.placement = placement;
+        }
+
+        /**
+         * Set the pieces of the placement, the first rank of the notation being the last row of the board
+         */
+        @Override
+        protected void initPieces() {
+            emptyBoard();
+            int i = 0, j = getHEIGHT() - 1;
+            for (char c : placement.toCharArray()) {
+                if(c == '/') {
+                    i = 0;
+                    j--;
+                } else if(Character.isDigit(c)) {
+                    i += c - '0';
+                } else {
+                    ChessColor color = Character.isUpperCase(c) ? ChessColor.WHITE : ChessColor.BLACK;
+                    setPieceAtPosition(getPiece(pieceType(Character.toLowerCase(c)), color), i++, j);
+                }
+            }
+        }
+
+        /**
+         * Get the piece type of a letter of the notation
+         * @param letter Lower case letter
+         * @return Piece type
+         */
+        private static ChessPieceType pieceType(char letter) {
+            switch (letter) {
+                case 'p':
+                    return ChessPieceType.PAWN;
+                case 'r':
+                    return ChessPieceType.ROOK;
+                case 'n':
+                    return ChessPieceType.KNIGHT;
+                case 'b':
+                    return ChessPieceType.BISHOP;
+                case 'q':
+                    return ChessPieceType.QUEEN;
+                case 'k':
+                    return ChessPieceType.KING;
+            }
+            throw new IllegalArgumentException(letter + " is not a piece");
+        }
+    }
+
+    /**
+     * Count the leaves of the move tree of a position, each move being played on a copy
+     * @param chess Position
+     * @param depth Number of moves to play
+     * @return Number of leaves
+     */
+    private static long perft(Chess chess, int depth) {
+        MoveList moves = new MoveList();
+        chess.generateMoves(chess.getTurn(), moves);
+        if(depth == 1)
+            return moves.size();
+        long leaves = 0;
+        for (int k = 0; k < moves.size(); k++) {
+            Chess next = chess.copy();
+            if(!next.playMove(moves.get(k)))
+                throw new AssertionError("Generated move refused : " + PackedMove.toString(moves.get(k)));
+            leaves += perft(next, depth - 1);
+        }
+        return leaves;
+    }
+
+    /**
+     * Check the leaves of a position in every mode of the engine
+     * @param name Name of the position
+     * @param placement Piece placement
+     * @param expected Expected leaves, indexed by depth - 1
+     */
+    private static void check(String name, String placement, long... expected) {
+        for (int mode = 0; mode < 3; mode++) {
+            Chess chess = new PositionChess(placement);
+            chess.setMoveCacheCapacity(mode == 1 ? MOVE_CACHE_CAPACITY : 0);
+            chess.setAttackMapEnabled(mode == 2);
+            chess.startGame();
+            for (int depth = 1; depth <= expected.length; depth++) {
+                long leaves = perft(chess, depth);
+                if(leaves != expected[depth - 1])
+                    throw new AssertionError(name + " mode " + mode + " depth " + depth + " : " + leaves
+                            + " instead of " + expected[depth - 1]);
+            }
+        }
+        System.out.println(name + " ok");
+    }
+
+    /**
+     * Run the test
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        check("start", START, 20, 400, 8902, 197281);
+        check("kiwipete", KIWIPETE, 48, 2039, 97862);
+        check("position 3", POSITION_3, 14, 191, 2812, 43238);
+    }
+}
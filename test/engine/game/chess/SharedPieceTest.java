@@ -0,0 +1,43 @@
+package engine.game.chess;
+
+/**
+ * Regression test of the pieces shared by the squares of a chess : what a piece has done is told by its square, so that
+ * a move of one Knight says nothing about the other one
+ * Run from the compiled engine and test classes, an AssertionError reporting the first failure
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+public class SharedPieceTest {
+    private static final int SIZE = 8;
+
+    /**
+     * Get the index of a square in algebraic notation
+     * @param square Square, as e2
+     * @return Index of the square
+     */
+    private static int square(String square) {
+        return square.charAt(0) - 'a' + (square.charAt(1) - '1') * SIZE;
+    }
+
+    /**
+     * Run the test
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        Chess chess = new Chess();
+        chess.startGame();
+        if(chess.getPieceAtPosition(square("b1")) != chess.getPieceAtPosition(square("g1")))
+            throw new AssertionError("Knights of a color not shared");
+
+        if(!chess.move(square("g1"), square("f3")) || !chess.move(square("g8"), square("f6")))
+            throw new AssertionError("Move refused");
+        if(chess.hasMoved(square("b1")) || chess.hasMoved(square("b8")))
+            throw new AssertionError("Knight moved by the move of the other one");
+        if(!chess.hasMoved(square("f3")) || !chess.hasMoved(square("g1")))
+            throw new AssertionError("Moved Knight not seen");
+        if(!chess.isOnFirstMove(chess.getPieceAtPosition(square("b1")), square("b1"))
+                || chess.isOnFirstMove(chess.getPieceAtPosition(square("f3")), square("f3")))
+            throw new AssertionError("First move of a Knight wrong");
+        System.out.println("shared pieces ok");
+    }
+}
@@ -0,0 +1,181 @@
+package engine.game.displayChess;
+
+import chess.ChessView;
+import chess.PieceType;
+import chess.PlayerColor;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Regression test of the view updates : a recording view follows a game played through the controller and must
+ * always show the pieces of the board, including after a new game started from a cleared view as the GUI does
+ * Run from the compiled engine and test classes, an AssertionError reporting the first wrong square
+ * @author Alen Bijelic
+ * @author Nelson Jeanrenaud
+ */
+public class DisplayChessTest {
+    private static final int SIZE = 8;
+    private static final int NB_PIECES = 32;
+    private static final int MAX_CALLS_PER_MOVE = 4;
+
+    /**
+     * View recording the displayed pieces
+     */
+    private static class RecordingView implements ChessView {
+        private final String[][] squares = new String[SIZE][SIZE];
+        private int calls;
+
+        /**
+         * Start the view
+         */
+        @Override
+        public void startView() {
+        }
+
+        /**
+         * Remove the piece of a square
+         * @param x X value
+         * @param y Y value
+         */
+        @Override
+        public void removePiece(int x, int y) {
+            calls++;
+            squares[x][y] = null;
+        }
+
+        /**
+         * Put a piece on a square
+         * @param type Type of the piece
+         * @param color Color of the piece
+         * @param x X value
+         * @param y Y value
+         */
+        @Override
+        public void putPiece(PieceType type, PlayerColor color, int x, int y) {
+            calls++;
+            squares[x][y] = color + " " + type;
+        }
+
+        /**
+         * Ignore a message
+         * @param msg Message
+         */
+        @Override
+        public void displayMessage(String msg) {
+        }
+
+        /**
+         * Fail, the engine must never ask the user while it plays
+         * @param title Title
+         * @param question Question
+         * @param possibilities Possible choices
+         * @return Never returns
+         */
+        @Override
+        @SafeVarargs
+        public final <T extends UserChoice> T askUser(String title, String question, T... possibilities) {
+            throw new AssertionError("The engine asked the user");
+        }
+
+        /**
+         * Clear the view as the GUI does before a new game
+         */
+        private void clear() {
+            for (String[] column : squares) {
+                Arrays.fill(column, null);
+            }
+        }
+
+        /**
+         * Count the displayed pieces
+         * @return Number of pieces
+         */
+        private int countPieces() {
+            int count = 0;
+            for (String[] column : squares) {
+                for (String square : column) {
+                    if(square != null)
+                        count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Check what a square displays
+     * @param view Recording view
+     * @param x X value
+     * @param y Y value
+     * @param expected Expected piece, null for an empty square
+     */
+    private static void checkSquare(RecordingView view, int x, int y, String expected) {
+        if(!Objects.equals(view.squares[x][y], expected))
+            throw new AssertionError("Square " + x + "," + y + " shows " + view.squares[x][y] + " instead of " + expected);
+    }
+
+    /**
+     * Check that the view shows the starting position
+     * @param view Recording view
+     */
+    private static void checkStart(RecordingView view) {
+        if(view.countPieces() != NB_PIECES)
+            throw new AssertionError(view.countPieces() + " pieces displayed instead of " + NB_PIECES);
+        checkSquare(view, 4, 0, "WHITE KING");
+        checkSquare(view, 3, 7, "BLACK QUEEN");
+        checkSquare(view, 4, 1, "WHITE PAWN");
+        checkSquare(view, 4, 3, null);
+    }
+
+    /**
+     * Play a move and check the number of view updates it made
+     * @param controller Controller
+     * @param view Recording view
+     * @param move Start and destination coordinates
+     */
+    private static void move(Controller controller, RecordingView view, int... move) {
+        int calls = view.calls;
+        if(!controller.move(move[0], move[1], move[2], move[3]))
+            throw new AssertionError("Move refused");
+        if(view.calls - calls > MAX_CALLS_PER_MOVE)
+            throw new AssertionError(view.calls - calls + " view updates for one move");
+    }
+
+    /**
+     * Run the test
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        Controller controller = new Controller();
+        RecordingView view = new RecordingView();
+        controller.start(view);
+        controller.newGame();
+        checkStart(view);
+
+        // A type no Pawn can be promoted to refuses the move instead of failing
+        if(controller.move(4, 1, 4, 3, PieceType.KING) || controller.move(4, 1, 4, 3, PieceType.PAWN))
+            throw new AssertionError("Invalid promotion accepted");
+        checkStart(view);
+
+        move(controller, view, 4, 1, 4, 3);
+        move(controller, view, 3, 6, 3, 4);
+        move(controller, view, 4, 3, 3, 4);
+        checkSquare(view, 4, 1, null);
+        checkSquare(view, 3, 4, "WHITE PAWN");
+        if(view.countPieces() != NB_PIECES - 1)
+            throw new AssertionError("Capture not displayed");
+
+        // New game of the GUI : the view is cleared before the controller starts the game
+        view.clear();
+        controller.newGame();
+        checkStart(view);
+
+        // New game from a view that was not cleared
+        move(controller, view, 6, 0, 5, 2);
+        controller.newGame();
+        checkStart(view);
+        checkSquare(view, 5, 2, null);
+        System.out.println("display ok");
+    }
+}